@@ -16,7 +16,6 @@ import org.jetbrains.annotations.NotNull;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
-import java.util.List;
 
 /**
  * Right-click action to copy gRPC curl command from proto service method definition.
@@ -48,11 +47,8 @@ public class ProtoGrpcCopyCurlAction extends AnAction {
         String methodName = signature[1];
         String requestType = signature[2];
 
-        // Parse request message fields
-        List<String[]> fields = ProtoGrpcUtils.parseMessageFields(psiFile, requestType);
-
-        // Generate JSON body
-        String jsonBody = ProtoGrpcUtils.generateJsonBody(fields);
+        // Generate JSON body, nested messages are expanded
+        String jsonBody = ProtoGrpcUtils.generateJsonBody(psiFile, requestType);
 
         // Build curl command
         String curl = GrpcCurlUtils.build(serviceName, methodName, jsonBody);
@@ -56,7 +56,7 @@ public class PreviewRightUploadAction extends AbstractToolbarUploadAction {
                     @Override
                     public @Nullable PopupStep<?> onChosen(String selectedValue, boolean finalChoice) {
 
-                        DocViewUploadService.getInstance(selectedValue).doUpload(project, currentDocView);
+                        DocViewUploadService.getInstance(selectedValue).upload(project, currentDocView);
 
                         return FINAL_CHOICE;
                     }
@@ -3,6 +3,7 @@ package com.liuzhihang.doc.view.action.toolbar.window;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
+import com.liuzhihang.doc.view.service.DocViewCache;
 import com.liuzhihang.doc.view.utils.CustomFileUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,6 +20,7 @@ public class WindowClearAction extends AnAction {
             return;
         }
         CustomFileUtils.delete(project, "Doc View");
+        DocViewCache.clear();
     }
 
 }
@@ -3,27 +3,26 @@ package com.liuzhihang.doc.view.action.toolbar.window;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.PlatformDataKeys;
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.fileChooser.FileChooser;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
-import com.intellij.openapi.progress.ProgressIndicator;
-import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.liuzhihang.doc.view.DocViewBundle;
+import com.liuzhihang.doc.view.config.Settings;
 import com.liuzhihang.doc.view.data.DocViewDataKeys;
 import com.liuzhihang.doc.view.dto.DocView;
-import com.liuzhihang.doc.view.dto.DocViewData;
 import com.liuzhihang.doc.view.notification.DocViewNotification;
+import com.liuzhihang.doc.view.ui.window.MethodNode;
 import com.liuzhihang.doc.view.ui.window.RootNode;
 import com.liuzhihang.doc.view.utils.DialogUtil;
+import com.liuzhihang.doc.view.utils.ExportUtils;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 /**
  * @author liuzhihang
@@ -52,32 +51,25 @@ public class WindowExportAction extends AnAction {
         }
         String path = chooser.getPath();
 
-        // 导出到一个文件中
-        File file = new File(path + "/DocView.md");
-
-        // 文件已存在，选择是否覆盖导出。
-        if (file.exists() && !DialogUtil.confirm(
-                DocViewBundle.message("notify.export.file.exists"),
-                DocViewBundle.message("notify.export.file.cover"))) {
-            return;
-        }
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View export", true) {
-            @Override
-            public void run(@NotNull ProgressIndicator progressIndicator) {
-
-                ApplicationManager.getApplication().executeOnPooledThread(() -> ApplicationManager.getApplication().runReadAction(() -> {
-
-                    for (DocView docView : rootNode.docViewList()) {
-                        try {
-                            FileUtil.writeToFile(file, DocViewData.markdownText(project, docView), true);
-                        } catch (Exception ignored) {
-                        }
-                    }
-
-                }));
-
+        File file = null;
+        if (Settings.getInstance(project).getMergeExport()) {
+            // 导出到一个文件中
+            file = new File(path + "/DocView.md");
 
+            // 文件已存在，选择是否覆盖导出。
+            if (file.exists() && !DialogUtil.confirm(
+                    DocViewBundle.message("notify.export.file.exists"),
+                    DocViewBundle.message("notify.export.file.cover"))) {
+                return;
             }
-        });
+        }
+        // 目录树的节点在后台的读操作中展开, 单独导出每个文档时在后台获取名称后确认是否覆盖
+        ExportUtils.export(project, "DocView", () -> rootNode.methodNodeList().stream()
+                .map(node -> (Callable<DocView>) node::docView)
+                .collect(Collectors.toList()),
+                file != null ? null : () -> rootNode.methodNodeList().stream()
+                        .map(MethodNode::getName)
+                        .collect(Collectors.toList()),
+                file, new File(path));
     }
 }
@@ -1,5 +1,6 @@
 package com.liuzhihang.doc.view.config;
 
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
@@ -24,6 +25,49 @@ public class ApplicationSettings implements PersistentStateComponent<Application
 
     private String pluginVersion = "0.0.1";
 
+    /**
+     * 上传文档时连接池的总连接数
+     */
+    private Integer httpMaxTotal = 64;
+
+    /**
+     * 上传文档时每个服务器的最大连接数
+     */
+    private Integer httpMaxPerRoute = 16;
+
+    /**
+     * 建立连接超时时间, 毫秒
+     */
+    private Integer httpConnectTimeout = 10000;
+
+    /**
+     * 读取超时时间, 毫秒
+     */
+    private Integer httpReadTimeout = 30000;
+
+    /**
+     * 服务器没有返回 Keep-Alive 时, 空闲连接保留的时间, 毫秒
+     */
+    private Integer httpKeepAlive = 60000;
+
+    /**
+     * 批量上传时同时准备上传内容的线程数
+     */
+    private Integer uploadParallelism = 4;
+
+    /**
+     * 批量上传时同时进行的请求数
+     */
+    private Integer uploadMaxInFlight = 64;
+
+    /**
+     * 批量上传时每个服务器每秒的请求数, 小于等于 0 时不限制
+     */
+    private Double uploadRatePerSecond = 10D;
+
+    public static ApplicationSettings getInstance() {
+        return ApplicationManager.getApplication().getService(ApplicationSettings.class);
+    }
 
     public static ApplicationSettings getInstance(@NotNull Project project) {
         return project.getService(ApplicationSettings.class);
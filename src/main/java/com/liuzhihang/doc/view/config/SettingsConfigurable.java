@@ -3,6 +3,7 @@ package com.liuzhihang.doc.view.config;
 import com.intellij.openapi.options.ConfigurationException;
 import com.intellij.openapi.options.SearchableConfigurable;
 import com.intellij.openapi.project.Project;
+import com.liuzhihang.doc.view.service.DocViewCache;
 import com.liuzhihang.doc.view.ui.SettingsForm;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
@@ -54,6 +55,8 @@ public class SettingsConfigurable implements SearchableConfigurable {
     @Override
     public void apply() throws ConfigurationException {
         settingsForm.apply();
+        // 设置会影响文档的生成
+        DocViewCache.clear();
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.intellij.openapi.options.ConfigurationException;
 import com.intellij.openapi.options.SearchableConfigurable;
 import com.intellij.openapi.project.Project;
 import com.liuzhihang.doc.view.ui.TemplateSettingForm;
+import com.liuzhihang.doc.view.utils.VelocityUtils;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -58,6 +59,7 @@ public class TemplateConfigurable implements SearchableConfigurable {
     public void apply() throws ConfigurationException {
 
         templateSettingForm.apply();
+        VelocityUtils.clearCache();
     }
 
     @Override
@@ -25,6 +25,11 @@ public class YApiSettings implements PersistentStateComponent<YApiSettings> {
 
     private String token;
 
+    /**
+     * 批量上传时转换为一个 swagger 文档导入
+     */
+    private Boolean bulkImport = false;
+
     public static YApiSettings getInstance(@NotNull Project project) {
         return project.getService(YApiSettings.class);
     }
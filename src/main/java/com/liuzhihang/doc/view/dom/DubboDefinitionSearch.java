@@ -12,6 +12,7 @@ import com.intellij.util.Processor;
 import com.intellij.util.xml.DomElement;
 import com.intellij.util.xml.DomFileElement;
 import com.intellij.util.xml.DomService;
+import com.liuzhihang.doc.view.utils.DubboPsiUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -46,6 +47,11 @@ public class DubboDefinitionSearch extends QueryExecutorBase<XmlElement, Definit
                 // 只需要判断 interface
                 String qualifiedName = psiClass.getQualifiedName();
 
+                // 不是 Dubbo 接口时不需要再遍历 xml
+                if (qualifiedName == null || !DubboPsiUtils.getDubboInterfaces(project).contains(qualifiedName)) {
+                    return;
+                }
+
                 for (DomFileElement<BeansDomElement> beansDomFileElement : fileElements) {
                     BeansDomElement rootElement = beansDomFileElement.getRootElement();
 
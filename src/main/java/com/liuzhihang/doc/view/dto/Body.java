@@ -34,6 +34,11 @@ public class Body {
      */
     private String example;
 
+    /**
+     * 示例 json 中的值, 构建 body 时一并计算, 为空时根据子节点生成
+     */
+    private Object exampleValue;
+
     /**
      * 参数描述
      */
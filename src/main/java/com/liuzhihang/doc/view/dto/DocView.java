@@ -132,4 +132,34 @@ public class DocView {
     public DocView() {
     }
 
+    /**
+     * 浅拷贝, 缓存中的文档需要修改时使用
+     *
+     * @return 新的 DocView
+     */
+    public DocView copy() {
+        DocView docView = new DocView(name);
+        docView.setPsiClass(psiClass);
+        docView.setPsiMethod(psiMethod);
+        docView.setDocTitle(docTitle);
+        docView.setClassTags(classTags);
+        docView.setTags(tags);
+        docView.setDesc(desc);
+        docView.setDomain(domain);
+        docView.setPath(path);
+        docView.setMethod(method);
+        docView.setChangeLog(changeLog);
+        docView.setHeaderList(headerList);
+        docView.setReqBody(reqBody);
+        docView.setRespBody(respBody);
+        docView.setReqParamList(reqParamList);
+        docView.setReqBodyExample(reqBodyExample);
+        docView.setReqFormExample(reqFormExample);
+        docView.setContentType(contentType);
+        docView.setRespExample(respExample);
+        docView.setRemark(remark);
+        docView.setType(type);
+        return docView;
+    }
+
 }
@@ -13,6 +13,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -276,15 +277,31 @@ public class DocViewData {
 
     public static String markdownText(Project project, DocView docView) {
 
-        DocViewData docViewData = new DocViewData(docView);
+        return VelocityUtils.convert(template(project, docView), new DocViewData(docView));
+    }
+
+    /**
+     * 直接将 Markdown 写入 writer, 批量导出时不再为每个文档生成字符串
+     *
+     * @param project 项目
+     * @param docView 文档
+     * @param writer  输出
+     * @return false 模版渲染失败
+     */
+    public static boolean writeMarkdown(Project project, DocView docView, Writer writer) {
+
+        return VelocityUtils.convert(template(project, docView), new DocViewData(docView), writer);
+    }
+
+    private static String template(Project project, DocView docView) {
 
         if (docView.getType() == FrameworkEnum.DUBBO) {
-            return VelocityUtils.convert(TemplateSettings.getInstance(project).getDubboTemplate(), docViewData);
+            return TemplateSettings.getInstance(project).getDubboTemplate();
         } else if (docView.getType() == FrameworkEnum.NONE_POJO) {
-            return VelocityUtils.convert(TemplateSettings.getInstance(project).getPojoTemplate(), docViewData);
-        }else {
+            return TemplateSettings.getInstance(project).getPojoTemplate();
+        } else {
             // 按照 Spring 模版
-            return VelocityUtils.convert(TemplateSettings.getInstance(project).getSpringTemplate(), docViewData);
+            return TemplateSettings.getInstance(project).getSpringTemplate();
         }
     }
 
@@ -0,0 +1,46 @@
+package com.liuzhihang.doc.view.index;
+
+import lombok.Data;
+
+/**
+ * 索引中记录的接口描述
+ * <p>
+ * 只保存从源码语法上能直接得到的信息, 不做任何 resolve
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class DocViewEndpoint {
+
+    /**
+     * 接口所在类的全类名
+     */
+    private String classFqn;
+
+    /**
+     * 请求方式, Dubbo/Feign 接口可能为空
+     */
+    private String method;
+
+    /**
+     * 注解中写的原始路径, 常量引用时为表达式文本
+     */
+    private String path;
+
+    /**
+     * 框架类型 {@link DocViewEndpointIndex#SPRING} {@link DocViewEndpointIndex#DUBBO} {@link DocViewEndpointIndex#FEIGN}
+     */
+    private String framework;
+
+    public DocViewEndpoint() {
+    }
+
+    public DocViewEndpoint(String classFqn, String method, String path, String framework) {
+        this.classFqn = classFqn;
+        this.method = method;
+        this.path = path;
+        this.framework = framework;
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.liuzhihang.doc.view.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 接口索引
+ * <p>
+ * key 为框架类型, value 为当前文件中该框架下的所有接口描述.
+ * <p>
+ * 只根据注解短名称做语法判断(与原先 JavaAnnotationIndex 查询的短名称一致), 不做 resolve,
+ * 文件变动时只会重新索引该文件. 使用方通过 {@link #findClasses(Module, String)} 拿到候选类后,
+ * 仍需使用 SpringPsiUtils/DubboPsiUtils/FeignPsiUtil 中的方法做最终校验.
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public class DocViewEndpointIndex extends FileBasedIndexExtension<String, List<DocViewEndpoint>> {
+
+    public static final ID<String, List<DocViewEndpoint>> NAME = ID.create("com.liuzhihang.doc.view.endpoint");
+
+    public static final String SPRING = "Spring";
+    public static final String DUBBO = "Dubbo";
+    public static final String FEIGN = "Feign";
+
+    private static final Set<String> SPRING_CLASS_ANNOTATIONS = Set.of("Controller", "RestController");
+    private static final Set<String> DUBBO_CLASS_ANNOTATIONS = Set.of("Service", "DubboService");
+    private static final Set<String> FEIGN_CLASS_ANNOTATIONS = Set.of("FeignClient");
+
+    private static final String REQUEST_MAPPING = "RequestMapping";
+
+    /**
+     * Mapping 注解短名称 -> 请求方式
+     */
+    private static final Map<String, String> MAPPING_METHODS = Map.of(
+            "GetMapping", "GET",
+            "PostMapping", "POST",
+            "PutMapping", "PUT",
+            "DeleteMapping", "DELETE",
+            "PatchMapping", "PATCH",
+            REQUEST_MAPPING, "");
+
+    @Override
+    public @NotNull ID<String, List<DocViewEndpoint>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<DocViewEndpoint>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+
+            if (!(psiFile instanceof PsiJavaFile javaFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<DocViewEndpoint>> result = new HashMap<>();
+            for (PsiClass psiClass : javaFile.getClasses()) {
+                indexClass(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<DocViewEndpoint>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<DocViewEndpoint> value) throws IOException {
+                out.writeInt(value.size());
+                for (DocViewEndpoint endpoint : value) {
+                    IOUtil.writeUTF(out, endpoint.getClassFqn());
+                    IOUtil.writeUTF(out, endpoint.getMethod());
+                    IOUtil.writeUTF(out, endpoint.getPath());
+                    IOUtil.writeUTF(out, endpoint.getFramework());
+                }
+            }
+
+            @Override
+            public List<DocViewEndpoint> read(@NotNull DataInput in) throws IOException {
+                int size = in.readInt();
+                List<DocViewEndpoint> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(new DocViewEndpoint(IOUtil.readUTF(in), IOUtil.readUTF(in), IOUtil.readUTF(in), IOUtil.readUTF(in)));
+                }
+                return list;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * 从索引中获取 module 下某个框架的所有候选类, 按全类名排序
+     *
+     * @param module    项目 Module
+     * @param framework 框架类型
+     * @return 候选类
+     */
+    @NotNull
+    public static List<PsiClass> findClasses(@NotNull Module module, @NotNull String framework) {
+        return findClasses(module.getProject(), GlobalSearchScope.moduleScope(module), framework);
+    }
+
+    /**
+     * 从索引中获取范围内某个框架的所有候选类, 按全类名排序
+     *
+     * @param project   项目
+     * @param scope     查找范围, 比如 module 或者若干变动的文件
+     * @param framework 框架类型
+     * @return 候选类
+     */
+    @NotNull
+    public static List<PsiClass> findClasses(@NotNull Project project, @NotNull GlobalSearchScope scope, @NotNull String framework) {
+
+        Set<String> classFqnSet = new TreeSet<>();
+        for (List<DocViewEndpoint> endpoints : FileBasedIndex.getInstance().getValues(NAME, framework, scope)) {
+            for (DocViewEndpoint endpoint : endpoints) {
+                classFqnSet.add(endpoint.getClassFqn());
+            }
+        }
+
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        List<PsiClass> psiClasses = new ArrayList<>(classFqnSet.size());
+        for (String classFqn : classFqnSet) {
+            PsiClass psiClass = facade.findClass(classFqn, scope);
+            if (psiClass != null) {
+                psiClasses.add(psiClass);
+            }
+        }
+        return psiClasses;
+    }
+
+    /**
+     * 范围内是否有接口, 找到一个即返回
+     *
+     * @param scope 查找范围
+     * @return true 存在
+     */
+    public static boolean hasEndpoints(@NotNull GlobalSearchScope scope) {
+
+        FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        for (String framework : List.of(SPRING, DUBBO, FEIGN)) {
+            if (!fileBasedIndex.processValues(NAME, framework, null, (file, value) -> false, scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void indexClass(@NotNull PsiClass psiClass, @NotNull Map<String, List<DocViewEndpoint>> result) {
+
+        String classFqn = psiClass.getQualifiedName();
+
+        if (StringUtils.isNotBlank(classFqn)) {
+            if (hasAnnotation(psiClass, SPRING_CLASS_ANNOTATIONS)) {
+                indexMethods(psiClass, classFqn, SPRING, result);
+            }
+            // Dubbo 和 Feign 只会是接口, 避免把 Spring 的 @Service 实现类也记录下来
+            if (psiClass.isInterface() && hasAnnotation(psiClass, DUBBO_CLASS_ANNOTATIONS)) {
+                indexMethods(psiClass, classFqn, DUBBO, result);
+            }
+            if (psiClass.isInterface() && hasAnnotation(psiClass, FEIGN_CLASS_ANNOTATIONS)) {
+                indexMethods(psiClass, classFqn, FEIGN, result);
+            }
+        }
+
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            indexClass(innerClass, result);
+        }
+    }
+
+    private static void indexMethods(@NotNull PsiClass psiClass, @NotNull String classFqn, @NotNull String framework,
+                                     @NotNull Map<String, List<DocViewEndpoint>> result) {
+
+        List<DocViewEndpoint> endpoints = result.computeIfAbsent(framework, k -> new ArrayList<>());
+
+        String classPath = path(findAnnotation(psiClass, Set.of(REQUEST_MAPPING)));
+
+        for (PsiMethod psiMethod : psiClass.getMethods()) {
+            if (psiMethod.isConstructor() || psiMethod.hasModifierProperty(PsiModifier.STATIC)) {
+                continue;
+            }
+            PsiAnnotation mapping = findAnnotation(psiMethod, MAPPING_METHODS.keySet());
+
+            if (mapping != null) {
+                endpoints.add(new DocViewEndpoint(classFqn, method(mapping), classPath + path(mapping), framework));
+            } else if (!SPRING.equals(framework)) {
+                // Dubbo 以及没有写 Mapping 的接口方法, 路径使用方法名
+                endpoints.add(new DocViewEndpoint(classFqn, "", psiMethod.getName(), framework));
+            }
+        }
+
+        // 类本身也需要记录, 保证没有方法时依旧可以被查到
+        if (endpoints.stream().noneMatch(endpoint -> classFqn.equals(endpoint.getClassFqn()))) {
+            endpoints.add(new DocViewEndpoint(classFqn, "", "", framework));
+        }
+    }
+
+    private static boolean hasAnnotation(@NotNull PsiModifierListOwner owner, @NotNull Set<String> shortNames) {
+        return findAnnotation(owner, shortNames) != null;
+    }
+
+    /**
+     * 根据注解短名称查找注解, 不做 resolve
+     */
+    private static PsiAnnotation findAnnotation(@NotNull PsiModifierListOwner owner, @NotNull Set<String> shortNames) {
+
+        PsiModifierList modifierList = owner.getModifierList();
+        if (modifierList == null) {
+            return null;
+        }
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+            if (reference != null && shortNames.contains(reference.getReferenceName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static String method(@NotNull PsiAnnotation mapping) {
+
+        PsiJavaCodeReferenceElement reference = Objects.requireNonNull(mapping.getNameReferenceElement());
+        String method = MAPPING_METHODS.get(reference.getReferenceName());
+
+        if (StringUtils.isNotEmpty(method)) {
+            return method;
+        }
+
+        // @RequestMapping(method = RequestMethod.POST), 只取第一个
+        PsiAnnotationMemberValue value = firstValue(mapping.findDeclaredAttributeValue("method"));
+        if (value == null) {
+            return "GET";
+        }
+        return StringUtils.substringAfterLast("." + value.getText(), ".").toUpperCase();
+    }
+
+    /**
+     * 注解中的原始路径, 开头为 /, 结尾没有 /
+     */
+    @NotNull
+    private static String path(PsiAnnotation annotation) {
+
+        if (annotation == null) {
+            return "";
+        }
+
+        PsiAnnotationMemberValue value = firstValue(annotation.findDeclaredAttributeValue("value"));
+        if (value == null) {
+            value = firstValue(annotation.findDeclaredAttributeValue("path"));
+        }
+        if (value == null) {
+            return "";
+        }
+
+        String path = value instanceof PsiLiteralExpression literal && literal.getValue() instanceof String str
+                ? str : value.getText();
+
+        if (StringUtils.isBlank(path)) {
+            return "";
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    private static PsiAnnotationMemberValue firstValue(PsiAnnotationMemberValue value) {
+
+        if (value instanceof PsiArrayInitializerMemberValue arrayValue) {
+            PsiAnnotationMemberValue[] initializers = arrayValue.getInitializers();
+            return initializers.length == 0 ? null : initializers[0];
+        }
+        return value;
+    }
+
+}
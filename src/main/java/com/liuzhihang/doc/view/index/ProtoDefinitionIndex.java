@@ -0,0 +1,150 @@
+package com.liuzhihang.doc.view.index;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.liuzhihang.doc.view.proto.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * proto 定义索引
+ * <p>
+ * key 为 message 或者 enum 的全名(包名加上外层 message), value 为名称在文件中的位置.
+ * <p>
+ * 直接解析文件内容, 不依赖 protobuf 插件的 PSI, 文件变动时只会重新索引该文件.
+ * 解析 import 的类型时按全名从索引中查找定义所在的文件, 不需要遍历项目中的 proto 文件
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public class ProtoDefinitionIndex extends FileBasedIndexExtension<String, Integer> {
+
+    public static final ID<String, Integer> NAME = ID.create("com.liuzhihang.doc.view.proto.definition");
+
+    private static final String EXTENSION = "proto";
+
+    @Override
+    public @NotNull ID<String, Integer> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, Integer, FileContent> getIndexer() {
+        return inputData -> {
+            ProtoFile protoFile = ProtoParser.parse(inputData.getContentAsText());
+
+            Map<String, Integer> result = new HashMap<>();
+            for (ProtoMessage message : protoFile.getMessageMap().values()) {
+                result.put(message.getFullName(), message.getTextOffset());
+            }
+            for (ProtoEnum protoEnum : protoFile.getEnumMap().values()) {
+                result.put(protoEnum.getFullName(), protoEnum.getTextOffset());
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<Integer> getValueExternalizer() {
+        return EnumeratorIntegerDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return file -> EXTENSION.equalsIgnoreCase(file.getExtension());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * 根据全名查找定义所在的文件, 有多个文件时优先使用 import 的文件
+     *
+     * @param project  项目
+     * @param fullName message 或者 enum 的全名
+     * @param imports  引用所在文件的 import
+     * @return 定义所在的文件以及名称的位置, 找不到时为空
+     */
+    @Nullable
+    public static Map.Entry<PsiFile, Integer> findDefinition(@NotNull Project project, @NotNull String fullName,
+                                                             @NotNull Collection<String> imports) {
+
+        Map<VirtualFile, Integer> definitions = new LinkedHashMap<>();
+        FileBasedIndex.getInstance().processValues(NAME, fullName, null, (file, offset) -> {
+            definitions.put(file, offset);
+            return true;
+        }, GlobalSearchScope.allScope(project));
+
+        if (definitions.isEmpty()) {
+            return null;
+        }
+
+        Map.Entry<VirtualFile, Integer> definition = definitions.entrySet().iterator().next();
+        if (definitions.size() > 1) {
+            for (Map.Entry<VirtualFile, Integer> entry : definitions.entrySet()) {
+                if (isImported(entry.getKey(), imports)) {
+                    definition = entry;
+                    break;
+                }
+            }
+        }
+
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(definition.getKey());
+        return psiFile == null ? null : Map.entry(psiFile, definition.getValue());
+    }
+
+    /**
+     * 从索引中查找其他文件中的定义, 索引未就绪时只在当前文件中查找
+     *
+     * @param project 项目
+     * @return resolver
+     */
+    @NotNull
+    public static ProtoFileResolver resolver(@NotNull Project project) {
+        return (from, fullName) -> {
+            if (DumbService.isDumb(project)) {
+                return null;
+            }
+            Map.Entry<PsiFile, Integer> definition = findDefinition(project, fullName, from.getImports());
+            return definition == null ? null : ProtoParser.parse(definition.getKey());
+        };
+    }
+
+    /**
+     * import 的路径是相对于 proto 根目录的, 比如 foo/bar.proto
+     */
+    private static boolean isImported(@NotNull VirtualFile file, @NotNull Collection<String> imports) {
+
+        String path = file.getPath();
+        for (String imported : imports) {
+            if (path.equals(imported) || path.endsWith("/" + imported)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.liuzhihang.doc.view.integration;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.liuzhihang.doc.view.config.ApplicationSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YApi ShowDoc 语雀共用的 HttpClient
+ * <p>
+ * 连接池中的连接保持 Keep-Alive, 批量上传时不再每次请求都重新握手, 插件卸载或者 IDE 关闭时释放.
+ * <p>
+ * 异步请求使用 JDK 的 HttpClient, 支持 HTTP/2 多路复用, 少量线程即可处理大量同时进行的请求
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Slf4j
+public class HttpClientService implements Disposable {
+
+    /**
+     * 从连接池获取连接的超时时间, 毫秒
+     */
+    private static final int CONNECTION_REQUEST_TIMEOUT = 10000;
+
+    /**
+     * 空闲连接使用前需要重新校验的时间, 毫秒
+     */
+    private static final int VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private volatile CloseableHttpClient client;
+
+    private volatile HttpClient asyncClient;
+
+    private volatile boolean disposed;
+
+    public static HttpClientService getInstance() {
+        return ApplicationManager.getApplication().getService(HttpClientService.class);
+    }
+
+    /**
+     * 获取共用的 HttpClient, 首次使用时根据配置创建
+     *
+     * @return client
+     */
+    @NotNull
+    public CloseableHttpClient getClient() {
+
+        CloseableHttpClient current = client;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (disposed) {
+                throw new IllegalStateException("Doc View http client is disposed");
+            }
+            if (client == null) {
+                client = create(ApplicationSettings.getInstance());
+            }
+            return client;
+        }
+    }
+
+    /**
+     * 获取共用的异步 HttpClient, 首次使用时根据配置创建
+     *
+     * @return client
+     */
+    @NotNull
+    public HttpClient getAsyncClient() {
+
+        HttpClient current = asyncClient;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (disposed) {
+                throw new IllegalStateException("Doc View http client is disposed");
+            }
+            if (asyncClient == null) {
+                asyncClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .connectTimeout(Duration.ofMillis(ApplicationSettings.getInstance().getHttpConnectTimeout()))
+                        .build();
+            }
+            return asyncClient;
+        }
+    }
+
+    /**
+     * 异步请求的读取超时时间, 设置在每个请求上
+     *
+     * @return 超时时间
+     */
+    @NotNull
+    public Duration getReadTimeout() {
+        return Duration.ofMillis(ApplicationSettings.getInstance().getHttpReadTimeout());
+    }
+
+    @NotNull
+    private static CloseableHttpClient create(@NotNull ApplicationSettings settings) {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.getHttpMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(settings.getHttpMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(settings.getHttpConnectTimeout())
+                .setSocketTimeout(settings.getHttpReadTimeout())
+                .setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT)
+                .build();
+
+        // 服务器没有返回 Keep-Alive 时使用配置的时间
+        long keepAlive = settings.getHttpKeepAlive();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        };
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public void dispose() {
+
+        CloseableHttpClient current;
+        HttpClient currentAsync;
+        synchronized (this) {
+            disposed = true;
+            current = client;
+            currentAsync = asyncClient;
+            client = null;
+            asyncClient = null;
+        }
+        if (currentAsync != null) {
+            currentAsync.shutdownNow();
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            log.warn("Doc View close http client failed", e);
+        }
+    }
+
+}
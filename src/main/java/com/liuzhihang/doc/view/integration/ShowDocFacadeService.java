@@ -3,6 +3,8 @@ package com.liuzhihang.doc.view.integration;
 import com.liuzhihang.doc.view.integration.dto.ShowDocUpdateRequest;
 import com.liuzhihang.doc.view.integration.dto.ShowDocUpdateResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * ShowDoc 文档对接
  * <p>
@@ -22,4 +24,12 @@ public interface ShowDocFacadeService {
      */
     ShowDocUpdateResponse updateByApi(ShowDocUpdateRequest request) throws Exception;
 
+    /**
+     * 上传到 ShowDoc, 异步
+     *
+     * @param request
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<ShowDocUpdateResponse> updateByApiAsync(ShowDocUpdateRequest request);
+
 }
@@ -1,9 +1,11 @@
 package com.liuzhihang.doc.view.integration;
 
 import com.liuzhihang.doc.view.integration.dto.YApiCat;
+import com.liuzhihang.doc.view.integration.dto.YApiImport;
 import com.liuzhihang.doc.view.integration.dto.YapiSave;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * YApi 包装 service
@@ -22,6 +24,21 @@ public interface YApiFacadeService {
      */
     void save(YapiSave dto) throws Exception;
 
+    /**
+     * 新增接口, 异步
+     *
+     * @param dto
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<Void> saveAsync(YapiSave dto);
+
+    /**
+     * 批量导入, 一次请求导入多个接口, 分类不存在时自动创建
+     *
+     * @param dto swagger 文档
+     */
+    void importData(YApiImport dto) throws Exception;
+
     /**
      * 获取菜单列表
      *
@@ -33,6 +50,16 @@ public interface YApiFacadeService {
      */
     List<YApiCat> getCatMenu(String yapiUrl, Long projectId, String token) throws Exception;
 
+    /**
+     * 获取菜单列表, 异步
+     *
+     * @param yapiUrl
+     * @param projectId
+     * @param token
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<List<YApiCat>> getCatMenuAsync(String yapiUrl, Long projectId, String token);
+
     /**
      * 添加菜单
      *
@@ -41,4 +68,12 @@ public interface YApiFacadeService {
      * @throws Exception
      */
     YApiCat addCat(YApiCat cat) throws Exception;
+
+    /**
+     * 添加菜单, 异步
+     *
+     * @param cat
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<YApiCat> addCatAsync(YApiCat cat);
 }
@@ -4,6 +4,9 @@ import com.liuzhihang.doc.view.integration.dto.YuQueCreate;
 import com.liuzhihang.doc.view.integration.dto.YuQueResponse;
 import com.liuzhihang.doc.view.integration.dto.YuQueUpdate;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 语雀包装 service
  * <p>
@@ -26,6 +29,27 @@ public interface YuQueFacadeService {
      */
     YuQueResponse getDoc(String url, String token, String namespace, String slug) throws Exception;
 
+    /**
+     * 获取知识库下的所有文档, 不包含正文
+     *
+     * @param url
+     * @param token
+     * @param namespace
+     * @return
+     * @throws Exception
+     */
+    List<YuQueResponse.Data> listDocs(String url, String token, String namespace) throws Exception;
+
+    /**
+     * 获取知识库下的所有文档, 异步
+     *
+     * @param url
+     * @param token
+     * @param namespace
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<List<YuQueResponse.Data>> listDocsAsync(String url, String token, String namespace);
+
     /**
      * 创建文档
      *
@@ -38,6 +62,17 @@ public interface YuQueFacadeService {
      */
     YuQueResponse create(String url, String token, String namespace, YuQueCreate yuQueCreate) throws Exception;
 
+    /**
+     * 创建文档, 异步
+     *
+     * @param url
+     * @param token
+     * @param namespace
+     * @param yuQueCreate
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<YuQueResponse> createAsync(String url, String token, String namespace, YuQueCreate yuQueCreate);
+
     /**
      * 更新文档
      *
@@ -50,4 +85,16 @@ public interface YuQueFacadeService {
      * @throws Exception
      */
     YuQueResponse update(String url, String token, String namespace, Long id, YuQueUpdate yuQueUpdate) throws Exception;
+
+    /**
+     * 更新文档, 异步
+     *
+     * @param url
+     * @param token
+     * @param namespace
+     * @param id          文章的 id
+     * @param yuQueUpdate
+     * @return 失败时以异常结束
+     */
+    CompletableFuture<YuQueResponse> updateAsync(String url, String token, String namespace, Long id, YuQueUpdate yuQueUpdate);
 }
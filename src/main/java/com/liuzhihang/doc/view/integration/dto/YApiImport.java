@@ -0,0 +1,45 @@
+package com.liuzhihang.doc.view.integration.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 批量导入对象
+ * <p>
+ * https://hellosean1025.github.io/yapi/openapi.html
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class YApiImport implements Serializable {
+
+    /**
+     * 项目信息
+     */
+    private String yapiUrl;
+
+    /**
+     * 项目 token
+     */
+    private String token;
+
+    /**
+     * 导入方式
+     * 枚举: swagger
+     */
+    private String type = "swagger";
+
+    /**
+     * 数据同步方式
+     * 枚举: normal 不覆盖已存在的接口, good 智能合并, merge 完全覆盖
+     */
+    private String merge = "good";
+
+    /**
+     * swagger 文档
+     */
+    private String json;
+
+}
@@ -0,0 +1,18 @@
+package com.liuzhihang.doc.view.integration.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 知识库的文档列表, 参考 https://www.yuque.com/yuque/developer/doc
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class YuQueDocList {
+
+    private List<YuQueResponse.Data> data;
+
+}
@@ -7,9 +7,12 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.liuzhihang.doc.view.integration.ShowDocFacadeService;
 import com.liuzhihang.doc.view.integration.dto.ShowDocUpdateRequest;
 import com.liuzhihang.doc.view.integration.dto.ShowDocUpdateResponse;
+import com.liuzhihang.doc.view.utils.AsyncHttpUtils;
 import com.liuzhihang.doc.view.utils.HttpUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author liuzhihang
  * @date 2021/7/27 11:53
@@ -23,7 +26,17 @@ public class ShowDocFacadeServiceImpl implements ShowDocFacadeService {
     @Override
     public ShowDocUpdateResponse updateByApi(ShowDocUpdateRequest request) throws Exception {
 
-        String resp = HttpUtils.post(request.getShowDocUrl() + "/api/item/updateByApi", gson.toJson(request));
+        return parse(HttpUtils.post(request.getShowDocUrl() + "/api/item/updateByApi", gson.toJson(request)));
+    }
+
+    @Override
+    public CompletableFuture<ShowDocUpdateResponse> updateByApiAsync(ShowDocUpdateRequest request) {
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.post(request.getShowDocUrl() + "/api/item/updateByApi", gson.toJson(request), null),
+                ShowDocFacadeServiceImpl::parse);
+    }
+
+    private static ShowDocUpdateResponse parse(String resp) throws Exception {
 
         if (StringUtils.isBlank(resp)) {
             throw new Exception("ShowDoc 接口返回为空");
@@ -6,14 +6,17 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import com.liuzhihang.doc.view.integration.YApiFacadeService;
 import com.liuzhihang.doc.view.integration.dto.YApiCat;
+import com.liuzhihang.doc.view.integration.dto.YApiImport;
 import com.liuzhihang.doc.view.integration.dto.YApiResponse;
 import com.liuzhihang.doc.view.integration.dto.YapiSave;
+import com.liuzhihang.doc.view.utils.AsyncHttpUtils;
 import com.liuzhihang.doc.view.utils.HttpUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author liuzhihang
@@ -27,7 +30,59 @@ public class YApiFacadeServiceImpl implements YApiFacadeService {
     @Override
     public void save(YapiSave save) throws Exception {
 
-        String resp = HttpUtils.post(save.getYapiUrl() + "/api/interface/save", gson.toJson(save));
+        checkResult(HttpUtils.post(save.getYapiUrl() + "/api/interface/save", gson.toJson(save)));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(YapiSave save) {
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.post(save.getYapiUrl() + "/api/interface/save", gson.toJson(save), null),
+                resp -> {
+                    checkResult(resp);
+                    return null;
+                });
+    }
+
+    @Override
+    public void importData(YApiImport dto) throws Exception {
+
+        checkResult(HttpUtils.post(dto.getYapiUrl() + "/api/open/import_data", gson.toJson(dto)));
+    }
+
+    @Override
+    public List<YApiCat> getCatMenu(String yapiUrl, Long projectId, String token) throws Exception {
+
+        return parseCatMenu(HttpUtils.get(catMenuUrl(yapiUrl, projectId, token)));
+    }
+
+    @Override
+    public CompletableFuture<List<YApiCat>> getCatMenuAsync(String yapiUrl, Long projectId, String token) {
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.get(catMenuUrl(yapiUrl, projectId, token), null, null),
+                YApiFacadeServiceImpl::parseCatMenu);
+    }
+
+    @Override
+    public YApiCat addCat(YApiCat cat) throws Exception {
+
+        return parseCat(HttpUtils.post(cat.getYapiUrl() + "/api/interface/add_cat", gson.toJson(cat)));
+    }
+
+    @Override
+    public CompletableFuture<YApiCat> addCatAsync(YApiCat cat) {
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.post(cat.getYapiUrl() + "/api/interface/add_cat", gson.toJson(cat), null),
+                YApiFacadeServiceImpl::parseCat);
+    }
+
+    private static String catMenuUrl(String yapiUrl, Long projectId, String token) {
+
+        return yapiUrl + "/api/interface/getCatMenu" +
+                "?project_id=" + projectId +
+                "&token=" + token;
+    }
+
+    private static void checkResult(String resp) throws Exception {
 
         if (StringUtils.isBlank(resp)) {
             throw new Exception("YApi 接口返回为空");
@@ -40,14 +95,7 @@ public class YApiFacadeServiceImpl implements YApiFacadeService {
         }
     }
 
-    @Override
-    public List<YApiCat> getCatMenu(String yapiUrl, Long projectId, String token) throws Exception {
-
-        String url = yapiUrl + "/api/interface/getCatMenu" +
-                "?project_id=" + projectId +
-                "&token=" + token;
-
-        String resp = HttpUtils.get(url);
+    private static List<YApiCat> parseCatMenu(String resp) throws Exception {
 
         Type jsonType = new TypeToken<YApiResponse<List<YApiCat>>>() {
         }.getType();
@@ -60,10 +108,7 @@ public class YApiFacadeServiceImpl implements YApiFacadeService {
         return response.getData();
     }
 
-    @Override
-    public YApiCat addCat(YApiCat cat) throws Exception {
-
-        String resp = HttpUtils.post(cat.getYapiUrl() + "/api/interface/add_cat", gson.toJson(cat));
+    private static YApiCat parseCat(String resp) throws Exception {
 
         if (StringUtils.isBlank(resp)) {
             throw new Exception("YApi 接口返回为空");
@@ -78,6 +123,5 @@ public class YApiFacadeServiceImpl implements YApiFacadeService {
             throw new Exception("YApi 接口返回失败:" + resp);
         }
         return response.getData();
-
     }
 }
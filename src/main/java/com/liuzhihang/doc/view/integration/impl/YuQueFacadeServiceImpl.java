@@ -4,14 +4,20 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.liuzhihang.doc.view.integration.YuQueFacadeService;
 import com.liuzhihang.doc.view.integration.dto.YuQueCreate;
+import com.liuzhihang.doc.view.integration.dto.YuQueDocList;
 import com.liuzhihang.doc.view.integration.dto.YuQueResponse;
 import com.liuzhihang.doc.view.integration.dto.YuQueUpdate;
+import com.liuzhihang.doc.view.utils.AsyncHttpUtils;
 import com.liuzhihang.doc.view.utils.HttpUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
+import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author liuzhihang
@@ -21,6 +27,11 @@ public class YuQueFacadeServiceImpl implements YuQueFacadeService {
 
     private static final Gson gson = new GsonBuilder().serializeNulls().create();
 
+    /**
+     * 文档列表每页的数量, 语雀最大为 100
+     */
+    private static final int PAGE_SIZE = 100;
+
     @Override
     public YuQueResponse getDoc(String url, String token, String namespace, String slug) throws Exception {
 
@@ -30,27 +41,71 @@ public class YuQueFacadeServiceImpl implements YuQueFacadeService {
         String resp = null;
         try {
             resp = HttpUtils.get(url + "/repos/" + namespace + "/docs/" + slug, null, List.of(header));
-        } catch (RuntimeException e) {
+        } catch (Exception e) {
             String message = e.getMessage();
-            if (message.contains("404") && message.contains("Not Found")) {
+            if (StringUtils.contains(message, "404") && StringUtils.contains(message, "Not Found")) {
                 return null;
             }
+            throw e;
         }
 
         return gson.fromJson(resp, YuQueResponse.class);
     }
 
+    @Override
+    public List<YuQueResponse.Data> listDocs(String url, String token, String namespace) throws Exception {
+
+        Header header = new BasicHeader("X-Auth-Token", token);
+
+        List<YuQueResponse.Data> docs = new ArrayList<>();
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            List<YuQueResponse.Data> page = parseDocList(HttpUtils.get(url + "/repos/" + namespace + "/docs",
+                    pageParameters(offset), List.of(header)));
+            docs.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                return docs;
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<YuQueResponse.Data>> listDocsAsync(String url, String token, String namespace) {
+
+        return listDocsAsync(url, List.of(new BasicHeader("X-Auth-Token", token)), namespace, 0, new ArrayList<>());
+    }
+
+    /**
+     * 上一页返回后再请求下一页
+     */
+    private CompletableFuture<List<YuQueResponse.Data>> listDocsAsync(String url, List<Header> headers, String namespace,
+                                                                      int offset, List<YuQueResponse.Data> docs) {
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.get(url + "/repos/" + namespace + "/docs", pageParameters(offset), headers),
+                        YuQueFacadeServiceImpl::parseDocList)
+                .thenCompose(page -> {
+                    docs.addAll(page);
+                    if (page.size() < PAGE_SIZE) {
+                        return CompletableFuture.completedFuture(docs);
+                    }
+                    return listDocsAsync(url, headers, namespace, offset + PAGE_SIZE, docs);
+                });
+    }
+
     @Override
     public YuQueResponse create(String url, String token, String namespace, YuQueCreate yuQueCreate) throws Exception {
 
         Header header = new BasicHeader("X-Auth-Token", token);
 
-        String resp = HttpUtils.post(url + "/repos/" + namespace + "/docs/", gson.toJson(yuQueCreate), List.of(header));
+        return parseDoc(HttpUtils.post(url + "/repos/" + namespace + "/docs/", gson.toJson(yuQueCreate), List.of(header)));
+    }
 
-        if (StringUtils.isBlank(resp)) {
-            throw new Exception("语雀接口返回为空");
-        }
-        return gson.fromJson(resp, YuQueResponse.class);
+    @Override
+    public CompletableFuture<YuQueResponse> createAsync(String url, String token, String namespace, YuQueCreate yuQueCreate) {
+
+        Header header = new BasicHeader("X-Auth-Token", token);
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.post(url + "/repos/" + namespace + "/docs/", gson.toJson(yuQueCreate), List.of(header)),
+                YuQueFacadeServiceImpl::parseDoc);
     }
 
     @Override
@@ -58,7 +113,36 @@ public class YuQueFacadeServiceImpl implements YuQueFacadeService {
 
         Header header = new BasicHeader("X-Auth-Token", token);
 
-        String resp = HttpUtils.put(url + "/repos/" + namespace + "/docs/" + id, gson.toJson(yuQueUpdate), List.of(header));
+        return parseDoc(HttpUtils.put(url + "/repos/" + namespace + "/docs/" + id, gson.toJson(yuQueUpdate), List.of(header)));
+    }
+
+    @Override
+    public CompletableFuture<YuQueResponse> updateAsync(String url, String token, String namespace, Long id, YuQueUpdate yuQueUpdate) {
+
+        Header header = new BasicHeader("X-Auth-Token", token);
+
+        return AsyncHttpUtils.parse(AsyncHttpUtils.put(url + "/repos/" + namespace + "/docs/" + id, gson.toJson(yuQueUpdate), List.of(header)),
+                YuQueFacadeServiceImpl::parseDoc);
+    }
+
+    private static List<NameValuePair> pageParameters(int offset) {
+
+        return List.of(new BasicNameValuePair("offset", String.valueOf(offset)), new BasicNameValuePair("limit", String.valueOf(PAGE_SIZE)));
+    }
+
+    private static List<YuQueResponse.Data> parseDocList(String resp) throws Exception {
+
+        if (StringUtils.isBlank(resp)) {
+            throw new Exception("语雀接口返回为空");
+        }
+        YuQueDocList docList = gson.fromJson(resp, YuQueDocList.class);
+        if (docList.getData() == null) {
+            throw new Exception("语雀接口返回失败:" + resp);
+        }
+        return docList.getData();
+    }
+
+    private static YuQueResponse parseDoc(String resp) throws Exception {
 
         if (StringUtils.isBlank(resp)) {
             throw new Exception("语雀接口返回为空");
@@ -1,8 +1,106 @@
 package com.liuzhihang.doc.view.listener;
 
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.util.Alarm;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
 /**
+ * 监听 Java 文件的变动, 记录变动的文件
+ * <p>
+ * 变动合并后延迟回调, 由目录树只更新变动文件对应的节点
+ *
  * @author liuzhihang
  * @date 2022/4/4 17:30
  */
-public class DocViewServiceListener {
+public class DocViewServiceListener extends PsiTreeChangeAdapter {
+
+    /**
+     * 合并变动的延迟时间
+     */
+    private static final int DELAY_MILLIS = 800;
+
+    private final Set<VirtualFile> dirtyFiles = new LinkedHashSet<>();
+    private final Consumer<Set<VirtualFile>> consumer;
+    private final Alarm alarm;
+
+    public DocViewServiceListener(@NotNull Disposable parentDisposable, @NotNull Consumer<Set<VirtualFile>> consumer) {
+        this.consumer = consumer;
+        this.alarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, parentDisposable);
+    }
+
+    @Override
+    public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    @Override
+    public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    @Override
+    public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    @Override
+    public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    @Override
+    public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    @Override
+    public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+        markDirty(event);
+    }
+
+    private void markDirty(@NotNull PsiTreeChangeEvent event) {
+
+        // 文件内部变动时 getFile 有值, 文件新增删除时 child 为文件本身
+        PsiFile psiFile = event.getFile();
+        if (psiFile == null && event.getChild() instanceof PsiFile childFile) {
+            psiFile = childFile;
+        }
+
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return;
+        }
+
+        VirtualFile virtualFile = psiFile.getViewProvider().getVirtualFile();
+
+        synchronized (dirtyFiles) {
+            dirtyFiles.add(virtualFile);
+        }
+
+        // 连续输入时只在停顿后处理一次
+        alarm.cancelAllRequests();
+        alarm.addRequest(this::flush, DELAY_MILLIS);
+    }
+
+    private void flush() {
+
+        Set<VirtualFile> files;
+        synchronized (dirtyFiles) {
+            if (dirtyFiles.isEmpty()) {
+                return;
+            }
+            files = new LinkedHashSet<>(dirtyFiles);
+            dirtyFiles.clear();
+        }
+        consumer.accept(files);
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * enum 定义
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoEnum {
+
+    /**
+     * 名称
+     */
+    private String name;
+
+    /**
+     * 包名加上外层 message 的全名
+     */
+    private String fullName;
+
+    /**
+     * 注释
+     */
+    private String comment;
+
+    /**
+     * 枚举值, 按源码中的顺序
+     */
+    private List<Value> values = new ArrayList<>();
+
+    /**
+     * 名称在文件中的位置
+     */
+    private int textOffset;
+
+    @Data
+    public static class Value {
+
+        private String name;
+
+        private int number;
+
+        private String comment;
+
+    }
+
+}
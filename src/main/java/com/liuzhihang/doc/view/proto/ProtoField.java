@@ -0,0 +1,75 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * message 中的字段, oneof 中的字段也平铺在 message 下, 通过 {@link #oneof} 区分
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoField {
+
+    /**
+     * 字段名
+     */
+    private String name;
+
+    /**
+     * 字段类型, 写法和源码一致, 比如 int64 .foo.Bar, map 为 map&lt;K, V&gt;
+     */
+    private String type;
+
+    /**
+     * repeated optional required, 没有时为空
+     */
+    private String label;
+
+    /**
+     * 字段编号
+     */
+    private int number;
+
+    /**
+     * map 的 key 类型
+     */
+    private String keyType;
+
+    /**
+     * map 的 value 类型
+     */
+    private String valueType;
+
+    /**
+     * 所在的 oneof, 不在 oneof 中时为空
+     */
+    private String oneof;
+
+    /**
+     * 注释
+     */
+    private String comment;
+
+    /**
+     * 字段后 [] 中的 option
+     */
+    private Map<String, String> options = new LinkedHashMap<>();
+
+    /**
+     * 字段名在文件中的位置
+     */
+    private int textOffset;
+
+    public boolean isRepeated() {
+        return "repeated".equals(label);
+    }
+
+    public boolean isMap() {
+        return valueType != null;
+    }
+
+}
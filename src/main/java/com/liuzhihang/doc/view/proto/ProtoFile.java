@@ -0,0 +1,187 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * proto 文件的解析结果
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoFile {
+
+    /**
+     * proto2 proto3 或者 edition
+     */
+    private String syntax;
+
+    /**
+     * 包名, 没有时为空字符串
+     */
+    private String packageName = "";
+
+    /**
+     * import 的文件路径
+     */
+    private List<String> imports = new ArrayList<>();
+
+    /**
+     * 文件级别的 option, 比如 java_package
+     */
+    private Map<String, String> options = new LinkedHashMap<>();
+
+    /**
+     * 顶层的 message
+     */
+    private List<ProtoMessage> messages = new ArrayList<>();
+
+    /**
+     * 顶层的 enum
+     */
+    private List<ProtoEnum> enums = new ArrayList<>();
+
+    private List<ProtoService> services = new ArrayList<>();
+
+    /**
+     * 全名 -> message, 包含嵌套的 message
+     */
+    private Map<String, ProtoMessage> messageMap = new LinkedHashMap<>();
+
+    /**
+     * 全名 -> enum, 包含嵌套的 enum
+     */
+    private Map<String, ProtoEnum> enumMap = new LinkedHashMap<>();
+
+    /**
+     * 按 proto 的作用域规则查找 message, 从内向外逐层查找
+     *
+     * @param scope    引用所在的作用域, 即所在 message 的全名, 顶层为包名
+     * @param typeName 引用的类型, 可以是 .foo.Bar 这样的全名
+     * @return message, 当前文件中不存在时为空
+     */
+    @Nullable
+    public ProtoMessage findMessage(@NotNull String scope, @NotNull String typeName) {
+
+        for (String candidate : candidates(scope, typeName)) {
+            ProtoMessage message = messageMap.get(candidate);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 proto 的作用域规则查找 enum
+     *
+     * @param scope    引用所在的作用域
+     * @param typeName 引用的类型
+     * @return enum, 当前文件中不存在时为空
+     */
+    @Nullable
+    public ProtoEnum findEnum(@NotNull String scope, @NotNull String typeName) {
+
+        for (String candidate : candidates(scope, typeName)) {
+            ProtoEnum protoEnum = enumMap.get(candidate);
+            if (protoEnum != null) {
+                return protoEnum;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析类型引用, 先按作用域在当前文件中查找, 找不到时再通过 resolver 在其他文件中查找
+     *
+     * @param scope    引用所在的作用域
+     * @param typeName 引用的类型
+     * @param resolver 查找其他文件
+     * @return 解析结果, 找不到时为空
+     */
+    @Nullable
+    public ProtoReference resolve(@NotNull String scope, @NotNull String typeName, @NotNull ProtoFileResolver resolver) {
+
+        List<String> candidates = candidates(scope, typeName);
+        for (String candidate : candidates) {
+            ProtoReference reference = reference(this, candidate);
+            if (reference != null) {
+                return reference;
+            }
+        }
+        for (String candidate : candidates) {
+            ProtoFile other = resolver.resolve(this, candidate);
+            ProtoReference reference = other == null ? null : reference(other, candidate);
+            if (reference != null) {
+                return reference;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查找和范围有交集的 rpc
+     *
+     * @param startOffset 开始位置
+     * @param endOffset   结束位置
+     * @return rpc
+     */
+    @Nullable
+    public ProtoRpc findRpc(int startOffset, int endOffset) {
+
+        for (ProtoService service : services) {
+            if (service.getStartOffset() > endOffset || service.getEndOffset() < startOffset) {
+                continue;
+            }
+            for (ProtoRpc rpc : service.getRpcs()) {
+                if (rpc.getStartOffset() <= endOffset && rpc.getEndOffset() >= startOffset) {
+                    return rpc;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ProtoReference reference(@NotNull ProtoFile protoFile, @NotNull String fullName) {
+
+        ProtoMessage message = protoFile.getMessageMap().get(fullName);
+        if (message != null) {
+            return new ProtoReference(protoFile, message, null);
+        }
+        ProtoEnum protoEnum = protoFile.getEnumMap().get(fullName);
+        return protoEnum == null ? null : new ProtoReference(protoFile, null, protoEnum);
+    }
+
+    /**
+     * 引用可能对应的全名, 按查找顺序排列
+     * <p>
+     * 比如在 foo.Outer 中引用 Bar, 依次为 foo.Outer.Bar foo.Bar Bar
+     *
+     * @param scope    引用所在的作用域
+     * @param typeName 引用的类型
+     * @return 全名
+     */
+    @NotNull
+    public static List<String> candidates(@NotNull String scope, @NotNull String typeName) {
+
+        if (typeName.startsWith(".")) {
+            return List.of(typeName.substring(1));
+        }
+
+        List<String> candidates = new ArrayList<>();
+        String current = scope;
+        while (!current.isEmpty()) {
+            candidates.add(current + "." + typeName);
+            int index = current.lastIndexOf('.');
+            current = index < 0 ? "" : current.substring(0, index);
+        }
+        candidates.add(typeName);
+        return candidates;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.liuzhihang.doc.view.proto;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 查找其他 proto 文件中的定义, 用于解析 import 的类型
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface ProtoFileResolver {
+
+    /**
+     * 只在当前文件中查找
+     */
+    ProtoFileResolver NONE = (from, fullName) -> null;
+
+    /**
+     * @param from     引用所在文件的解析结果
+     * @param fullName message 或者 enum 的全名
+     * @return 定义所在文件的解析结果, 找不到时为空
+     */
+    @Nullable
+    ProtoFile resolve(@NotNull ProtoFile from, @NotNull String fullName);
+
+}
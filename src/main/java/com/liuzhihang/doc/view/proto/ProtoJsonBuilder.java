@@ -0,0 +1,258 @@
+package com.liuzhihang.doc.view.proto;
+
+import com.google.gson.*;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.liuzhihang.doc.view.index.ProtoDefinitionIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 根据 message 生成 gRPC 请求的 JSON 示例
+ * <p>
+ * message 类型的字段递归展开, repeated 为数组, map 为对象, 各包含一个示例元素, 同一个 oneof 只保留第一个字段.
+ * 当前文件中找不到的类型通过 {@link ProtoFileResolver} 在 import 的文件中查找.
+ * <p>
+ * 循环引用时, 再次出现的 message 为 {}. 展开后的结果按 message 全名缓存, 只有展开过程中没有因为外层的 message 被截断时才缓存,
+ * 并且只有缓存中展开过的 message 都不在当前递归路径上时才使用, 保证使用缓存和逐个字段展开的结果一致
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public final class ProtoJsonBuilder {
+
+    private static final Key<CachedValue<Map<String, Expansion>>> JSON_BODIES = Key.create("DocView.ProtoJsonBodies");
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+
+    /**
+     * 标量类型的默认值
+     */
+    private static final Map<String, JsonElement> SCALARS = new HashMap<>();
+
+    /**
+     * google/protobuf 中 JSON 有特殊格式的类型
+     */
+    private static final Map<String, JsonElement> WELL_KNOWN_TYPES = new HashMap<>();
+
+    static {
+        for (String type : new String[]{"double", "float", "int32", "int64", "uint32", "uint64", "sint32", "sint64",
+                "fixed32", "fixed64", "sfixed32", "sfixed64"}) {
+            SCALARS.put(type, new JsonPrimitive(0));
+        }
+        SCALARS.put("bool", new JsonPrimitive(false));
+        SCALARS.put("string", new JsonPrimitive(""));
+        SCALARS.put("bytes", new JsonPrimitive(""));
+
+        for (String type : new String[]{"DoubleValue", "FloatValue", "Int64Value", "UInt64Value", "Int32Value", "UInt32Value"}) {
+            WELL_KNOWN_TYPES.put("google.protobuf." + type, new JsonPrimitive(0));
+        }
+        WELL_KNOWN_TYPES.put("google.protobuf.BoolValue", new JsonPrimitive(false));
+        WELL_KNOWN_TYPES.put("google.protobuf.StringValue", new JsonPrimitive(""));
+        WELL_KNOWN_TYPES.put("google.protobuf.BytesValue", new JsonPrimitive(""));
+        WELL_KNOWN_TYPES.put("google.protobuf.Timestamp", new JsonPrimitive("1970-01-01T00:00:00Z"));
+        WELL_KNOWN_TYPES.put("google.protobuf.Duration", new JsonPrimitive("0s"));
+        WELL_KNOWN_TYPES.put("google.protobuf.FieldMask", new JsonPrimitive(""));
+        WELL_KNOWN_TYPES.put("google.protobuf.Value", JsonNull.INSTANCE);
+    }
+
+    private final ProtoFileResolver resolver;
+
+    /**
+     * message 全名 -> 展开后的结果
+     */
+    private final Map<String, Expansion> memo;
+
+    /**
+     * 当前递归路径上的 message
+     */
+    private final Set<String> expanding = new HashSet<>();
+
+    private ProtoJsonBuilder(@NotNull ProtoFileResolver resolver, @NotNull Map<String, Expansion> memo) {
+        this.resolver = resolver;
+        this.memo = memo;
+    }
+
+    /**
+     * 生成 JSON, import 的类型从索引中查找
+     * <p>
+     * 展开结果缓存在引用所在的文件上, 可能包含其他文件中的定义, 所以任意文件变动或者索引状态变化时失效
+     *
+     * @param psiFile   引用所在的 proto 文件
+     * @param protoFile message 所在文件的解析结果
+     * @param message   message
+     * @return JSON
+     */
+    @NotNull
+    public static String toJson(@NotNull PsiFile psiFile, @NotNull ProtoFile protoFile, @NotNull ProtoMessage message) {
+
+        Map<String, Expansion> memo = CachedValuesManager.getCachedValue(psiFile, JSON_BODIES, () ->
+                CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT,
+                        DumbService.getInstance(psiFile.getProject()).getModificationTracker()));
+        return toJson(protoFile, message, ProtoDefinitionIndex.resolver(psiFile.getProject()), memo);
+    }
+
+    /**
+     * 生成 JSON, 不使用缓存
+     *
+     * @param protoFile message 所在文件的解析结果
+     * @param message   message
+     * @param resolver  查找其他文件中的定义
+     * @return JSON
+     */
+    @NotNull
+    public static String toJson(@NotNull ProtoFile protoFile, @NotNull ProtoMessage message,
+                                @NotNull ProtoFileResolver resolver) {
+        return toJson(protoFile, message, resolver, new HashMap<>());
+    }
+
+    @NotNull
+    private static String toJson(@NotNull ProtoFile protoFile, @NotNull ProtoMessage message,
+                                 @NotNull ProtoFileResolver resolver, @NotNull Map<String, Expansion> memo) {
+        return GSON.toJson(new ProtoJsonBuilder(resolver, memo).expand(protoFile, message).json);
+    }
+
+    /**
+     * @param protoFile message 所在文件的解析结果, 用来解析字段的类型
+     */
+    @NotNull
+    private Expansion expand(@NotNull ProtoFile protoFile, @NotNull ProtoMessage message) {
+
+        String fullName = message.getFullName();
+        Expansion cached = memo.get(fullName);
+        if (cached != null && Collections.disjoint(cached.types, expanding)) {
+            return cached;
+        }
+
+        expanding.add(fullName);
+        JsonObject json = new JsonObject();
+        Set<String> cuts = new HashSet<>();
+        Set<String> types = new HashSet<>();
+        types.add(fullName);
+        Set<String> oneofs = new HashSet<>();
+
+        for (ProtoField field : message.getFields()) {
+            // 同一个 oneof 只能设置一个字段
+            if (field.getOneof() != null && !oneofs.add(field.getOneof())) {
+                continue;
+            }
+
+            JsonElement value;
+            if (field.isMap()) {
+                JsonObject map = new JsonObject();
+                map.add(mapKey(field.getKeyType()), value(protoFile, fullName, field.getValueType(), cuts, types));
+                value = map;
+            } else if (field.isRepeated()) {
+                JsonArray array = new JsonArray();
+                array.add(value(protoFile, fullName, field.getType(), cuts, types));
+                value = array;
+            } else {
+                value = value(protoFile, fullName, field.getType(), cuts, types);
+            }
+            json.add(field.getName(), value);
+        }
+
+        expanding.remove(fullName);
+        // 只因为自身被截断时, 结果和外层无关
+        cuts.remove(fullName);
+        Expansion expansion = new Expansion(json, cuts, types);
+        if (cuts.isEmpty()) {
+            memo.put(fullName, expansion);
+        }
+        return expansion;
+    }
+
+    /**
+     * @param protoFile 字段所在文件的解析结果
+     * @param scope     字段所在 message 的全名
+     * @param type      字段类型
+     * @param cuts      因为循环引用被截断的 message
+     * @param types     展开过的 message
+     */
+    @NotNull
+    private JsonElement value(@NotNull ProtoFile protoFile, @NotNull String scope, @NotNull String type,
+                              @NotNull Set<String> cuts, @NotNull Set<String> types) {
+
+        JsonElement scalar = SCALARS.get(type);
+        if (scalar != null) {
+            return scalar;
+        }
+
+        // google/protobuf 中的类型 JSON 格式特殊, 不按定义展开
+        String fullName = type.startsWith(".") ? type.substring(1) : type;
+        JsonElement wellKnown = WELL_KNOWN_TYPES.get(fullName);
+        if (wellKnown != null) {
+            return wellKnown;
+        }
+        if ("google.protobuf.ListValue".equals(fullName)) {
+            return new JsonArray();
+        }
+
+        ProtoReference reference = protoFile.resolve(scope, type, resolver);
+        if (reference == null) {
+            // Struct Any Empty 以及找不到定义的 message
+            return new JsonObject();
+        }
+
+        ProtoEnum protoEnum = reference.getProtoEnum();
+        if (protoEnum != null) {
+            // JSON 中的枚举使用名称, 默认为第一个
+            return protoEnum.getValues().isEmpty()
+                    ? new JsonPrimitive(0) : new JsonPrimitive(protoEnum.getValues().get(0).getName());
+        }
+
+        ProtoMessage message = reference.getMessage();
+        if (expanding.contains(message.getFullName())) {
+            cuts.add(message.getFullName());
+            return new JsonObject();
+        }
+        Expansion expansion = expand(reference.getFile(), message);
+        cuts.addAll(expansion.cuts);
+        types.addAll(expansion.types);
+        return expansion.json;
+    }
+
+    /**
+     * JSON 中 map 的 key 都是字符串
+     */
+    @NotNull
+    private static String mapKey(@NotNull String keyType) {
+
+        if ("string".equals(keyType)) {
+            return "";
+        }
+        if ("bool".equals(keyType)) {
+            return "false";
+        }
+        return "0";
+    }
+
+    private static class Expansion {
+
+        private final JsonElement json;
+
+        /**
+         * 展开过程中因为循环引用被截断的 message, 不为空时结果和递归路径有关
+         */
+        private final Set<String> cuts;
+
+        /**
+         * 展开过的 message, 包括自身
+         */
+        private final Set<String> types;
+
+        private Expansion(JsonElement json, Set<String> cuts, Set<String> types) {
+            this.json = json;
+            this.cuts = cuts;
+            this.types = types;
+        }
+    }
+
+}
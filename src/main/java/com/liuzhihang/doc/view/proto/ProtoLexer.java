@@ -0,0 +1,243 @@
+package com.liuzhihang.doc.view.proto;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * proto 文件分词
+ * <p>
+ * 注释不作为 token, 挂在前后的 token 上: 和上一个 token 在同一行的注释作为上一个 token 的行尾注释,
+ * 其他的作为下一个 token 的前置注释
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+final class ProtoLexer {
+
+    enum Type {
+        IDENT, NUMBER, STRING, SYMBOL, EOF
+    }
+
+    static final class Token {
+
+        final Type type;
+
+        /**
+         * 字符串为去掉引号和转义后的内容
+         */
+        final String text;
+
+        final int start;
+
+        final int end;
+
+        /**
+         * 前置注释
+         */
+        String comment;
+
+        /**
+         * 行尾注释
+         */
+        String trailingComment;
+
+        Token(Type type, String text, int start, int end) {
+            this.type = type;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean is(String symbol) {
+            return type != Type.STRING && type != Type.EOF && text.equals(symbol);
+        }
+
+        boolean isIdent() {
+            return type == Type.IDENT;
+        }
+    }
+
+    private ProtoLexer() {
+    }
+
+    /**
+     * 分词, 最后一个 token 为 EOF
+     *
+     * @param text 文件内容
+     * @return token
+     */
+    @NotNull
+    static List<Token> tokenize(@NotNull CharSequence text) {
+
+        List<Token> tokens = new ArrayList<>();
+        int length = text.length();
+        int line = 0;
+        int lastTokenLine = -1;
+        Token last = null;
+        String pending = null;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '\n') {
+                line++;
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            if (c == '/' && i + 1 < length && (text.charAt(i + 1) == '/' || text.charAt(i + 1) == '*')) {
+                boolean block = text.charAt(i + 1) == '*';
+                int end = block ? indexOf(text, "*/", i + 2) : indexOf(text, "\n", i);
+                end = end < 0 ? length : (block ? end + 2 : end);
+
+                String comment = commentText(text.subSequence(i, end), block);
+                if (!comment.isEmpty()) {
+                    if (last != null && lastTokenLine == line) {
+                        last.trailingComment = join(last.trailingComment, comment);
+                    } else {
+                        pending = join(pending, comment);
+                    }
+                }
+                for (int j = i; j < end; j++) {
+                    if (text.charAt(j) == '\n') {
+                        line++;
+                    }
+                }
+                i = end;
+                continue;
+            }
+
+            int start = i;
+            Token token;
+            if (Character.isLetter(c) || c == '_') {
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    i++;
+                }
+                token = new Token(Type.IDENT, text.subSequence(start, i).toString(), start, i);
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(text.charAt(i + 1)))) {
+                i = numberEnd(text, i);
+                token = new Token(Type.NUMBER, text.subSequence(start, i).toString(), start, i);
+            } else if (c == '"' || c == '\'') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < length && text.charAt(i) != c && text.charAt(i) != '\n') {
+                    char ch = text.charAt(i++);
+                    if (ch == '\\' && i < length) {
+                        ch = text.charAt(i++);
+                        ch = switch (ch) {
+                            case 'n' -> '\n';
+                            case 't' -> '\t';
+                            case 'r' -> '\r';
+                            default -> ch;
+                        };
+                    }
+                    value.append(ch);
+                }
+                if (i < length && text.charAt(i) == c) {
+                    i++;
+                }
+                token = new Token(Type.STRING, value.toString(), start, i);
+            } else {
+                i++;
+                token = new Token(Type.SYMBOL, String.valueOf(c), start, i);
+            }
+
+            token.comment = pending;
+            pending = null;
+            tokens.add(token);
+            last = token;
+            lastTokenLine = line;
+        }
+
+        tokens.add(new Token(Type.EOF, "", length, length));
+        return tokens;
+    }
+
+    /**
+     * 数字, 包括 0x1F 1.5e-3 这样的写法
+     */
+    private static int numberEnd(@NotNull CharSequence text, int start) {
+
+        int length = text.length();
+        boolean hex = start + 1 < length && text.charAt(start) == '0'
+                && (text.charAt(start + 1) == 'x' || text.charAt(start + 1) == 'X');
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                i++;
+            } else if ((c == '+' || c == '-') && !hex && i > start
+                    && (text.charAt(i - 1) == 'e' || text.charAt(i - 1) == 'E')) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int indexOf(@NotNull CharSequence text, @NotNull String target, int from) {
+
+        int max = text.length() - target.length();
+        for (int i = from; i <= max; i++) {
+            boolean match = true;
+            for (int j = 0; j < target.length(); j++) {
+                if (text.charAt(i + j) != target.charAt(j)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 去掉注释符号以及块注释每行开头的 *
+     */
+    @NotNull
+    private static String commentText(@NotNull CharSequence comment, boolean block) {
+
+        String text = comment.toString();
+        if (!block) {
+            return stripLeading(text, '/').trim();
+        }
+
+        text = text.substring(2, text.endsWith("*/") && text.length() >= 4 ? text.length() - 2 : text.length());
+        StringBuilder builder = new StringBuilder();
+        for (String line : text.split("\n")) {
+            String trimmed = stripLeading(line.trim(), '*').trim();
+            if (!trimmed.isEmpty()) {
+                if (builder.length() > 0) {
+                    builder.append("\n");
+                }
+                builder.append(trimmed);
+            }
+        }
+        return builder.toString();
+    }
+
+    @NotNull
+    private static String stripLeading(@NotNull String text, char c) {
+
+        int i = 0;
+        while (i < text.length() && text.charAt(i) == c) {
+            i++;
+        }
+        return text.substring(i);
+    }
+
+    private static String join(String previous, @NotNull String comment) {
+        return previous == null ? comment : previous + "\n" + comment;
+    }
+
+}
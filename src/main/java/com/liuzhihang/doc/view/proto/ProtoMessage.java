@@ -0,0 +1,56 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * message 定义
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoMessage {
+
+    /**
+     * 名称
+     */
+    private String name;
+
+    /**
+     * 包名加上外层 message 的全名, 比如 foo.Outer.Inner
+     */
+    private String fullName;
+
+    /**
+     * 注释
+     */
+    private String comment;
+
+    /**
+     * 字段, 按源码中的顺序
+     */
+    private List<ProtoField> fields = new ArrayList<>();
+
+    /**
+     * 嵌套的 message
+     */
+    private List<ProtoMessage> messages = new ArrayList<>();
+
+    /**
+     * 嵌套的 enum
+     */
+    private List<ProtoEnum> enums = new ArrayList<>();
+
+    private Map<String, String> options = new LinkedHashMap<>();
+
+    /**
+     * 名称在文件中的位置
+     */
+    private int textOffset;
+
+}
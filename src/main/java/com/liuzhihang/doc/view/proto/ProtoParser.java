@@ -0,0 +1,655 @@
+package com.liuzhihang.doc.view.proto;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.liuzhihang.doc.view.proto.ProtoLexer.Token;
+import com.liuzhihang.doc.view.proto.ProtoLexer.Type;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * proto 文件解析
+ * <p>
+ * 先分词, 再递归下降解析出 message enum service 的结构, 支持嵌套 message, oneof, map, 注释以及 option.
+ * <p>
+ * 编辑中的文件可能不完整, 遇到不认识的语句时跳到下一个 ; 或者跳过整个块, 不会抛出异常.
+ * <p>
+ * 解析结果按文件的修改次数缓存, 文件不变时直接使用
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public final class ProtoParser {
+
+    private static final Key<CachedValue<ProtoFile>> PROTO_FILE = Key.create("DocView.ProtoFile");
+
+    private static final Set<String> LABELS = Set.of("repeated", "optional", "required");
+
+    private final CharSequence text;
+
+    private final List<Token> tokens;
+
+    private final ProtoFile protoFile = new ProtoFile();
+
+    private int pos;
+
+    private ProtoParser(@NotNull CharSequence text) {
+        this.text = text;
+        this.tokens = ProtoLexer.tokenize(text);
+    }
+
+    /**
+     * 解析 proto 文件, 文件没有变化时使用缓存
+     *
+     * @param psiFile proto 文件
+     * @return 解析结果
+     */
+    @NotNull
+    public static ProtoFile parse(@NotNull PsiFile psiFile) {
+        return CachedValuesManager.getCachedValue(psiFile, PROTO_FILE, () ->
+                CachedValueProvider.Result.create(parse(psiFile.getViewProvider().getContents()), psiFile));
+    }
+
+    /**
+     * 解析 proto 文件内容
+     *
+     * @param text 文件内容
+     * @return 解析结果
+     */
+    @NotNull
+    public static ProtoFile parse(@NotNull CharSequence text) {
+
+        ProtoParser parser = new ProtoParser(text);
+        parser.parseFile();
+        return parser.protoFile;
+    }
+
+    private void parseFile() {
+
+        while (!atEnd()) {
+            if (accept(";")) {
+                continue;
+            }
+            Token token = next();
+            switch (token.text) {
+                case "syntax", "edition" -> {
+                    if (accept("=") && peek().type == Type.STRING) {
+                        protoFile.setSyntax(next().text);
+                    }
+                    endStatement();
+                }
+                case "package" -> {
+                    String packageName = parseTypeName();
+                    if (packageName != null) {
+                        protoFile.setPackageName(packageName);
+                    }
+                    endStatement();
+                }
+                case "import" -> {
+                    // import weak/public "foo/bar.proto";
+                    if (peek().is("weak") || peek().is("public")) {
+                        pos++;
+                    }
+                    if (peek().type == Type.STRING) {
+                        protoFile.getImports().add(next().text);
+                    }
+                    endStatement();
+                }
+                case "option" -> parseOption(protoFile.getOptions());
+                case "message" -> {
+                    ProtoMessage message = parseMessage(token, protoFile.getPackageName());
+                    if (message != null) {
+                        protoFile.getMessages().add(message);
+                    }
+                }
+                case "enum" -> {
+                    ProtoEnum protoEnum = parseEnum(token, protoFile.getPackageName());
+                    if (protoEnum != null) {
+                        protoFile.getEnums().add(protoEnum);
+                    }
+                }
+                case "service" -> {
+                    ProtoService service = parseService(token);
+                    if (service != null) {
+                        protoFile.getServices().add(service);
+                    }
+                }
+                // extend 以及不认识的语句
+                default -> skipStatement();
+            }
+        }
+    }
+
+    /**
+     * message 关键字已经读取
+     */
+    @Nullable
+    private ProtoMessage parseMessage(@NotNull Token keyword, @NotNull String scope) {
+
+        Token name = peek();
+        if (!name.isIdent()) {
+            skipStatement();
+            return null;
+        }
+        pos++;
+
+        ProtoMessage message = new ProtoMessage();
+        message.setName(name.text);
+        message.setFullName(join(scope, name.text));
+        message.setComment(keyword.comment);
+        message.setTextOffset(name.start);
+        protoFile.getMessageMap().put(message.getFullName(), message);
+
+        if (!accept("{")) {
+            skipStatement();
+            return message;
+        }
+        parseMessageBody(message, null);
+        return message;
+    }
+
+    /**
+     * 解析到对应的 } 为止, oneof 中的字段直接放到 message 下
+     *
+     * @param oneof 当前所在的 oneof
+     */
+    private void parseMessageBody(@NotNull ProtoMessage message, @Nullable String oneof) {
+
+        while (!atEnd()) {
+            if (accept("}")) {
+                return;
+            }
+            if (accept(";")) {
+                continue;
+            }
+
+            Token token = peek();
+            if (token.isIdent() && isDeclaration()) {
+                if (token.is("message")) {
+                    pos++;
+                    ProtoMessage nested = parseMessage(token, message.getFullName());
+                    if (nested != null) {
+                        message.getMessages().add(nested);
+                    }
+                    continue;
+                }
+                if (token.is("enum")) {
+                    pos++;
+                    ProtoEnum nested = parseEnum(token, message.getFullName());
+                    if (nested != null) {
+                        message.getEnums().add(nested);
+                    }
+                    continue;
+                }
+                if (token.is("oneof")) {
+                    pos += 3;
+                    parseMessageBody(message, tokens.get(pos - 2).text);
+                    continue;
+                }
+            }
+            if (token.is("option")) {
+                pos++;
+                parseOption(oneof == null ? message.getOptions() : new LinkedHashMap<>());
+                continue;
+            }
+            if (token.is("reserved") || token.is("extensions") || token.is("extend")) {
+                skipStatement();
+                continue;
+            }
+
+            ProtoField field = parseField(oneof);
+            if (field != null) {
+                message.getFields().add(field);
+            }
+        }
+    }
+
+    /**
+     * [label] type name = number [options];
+     */
+    @Nullable
+    private ProtoField parseField(@Nullable String oneof) {
+
+        Token first = peek();
+        ProtoField field = new ProtoField();
+        field.setOneof(oneof);
+
+        // optional 后面不是 = 时才是 label, 否则是字段的类型
+        if (first.isIdent() && LABELS.contains(first.text) && !peek(2).is("=")) {
+            field.setLabel(next().text);
+        }
+
+        if (peek().is("map") && peek(1).is("<")) {
+            pos += 2;
+            String keyType = parseTypeName();
+            String valueType = accept(",") ? parseTypeName() : null;
+            if (keyType == null || valueType == null || !accept(">")) {
+                skipStatement();
+                return null;
+            }
+            field.setKeyType(keyType);
+            field.setValueType(valueType);
+            field.setType("map<" + keyType + ", " + valueType + ">");
+        } else {
+            String type = parseTypeName();
+            // proto2 的 group 不支持
+            if (type == null || "group".equals(type)) {
+                skipStatement();
+                return null;
+            }
+            field.setType(type);
+        }
+
+        Token name = peek();
+        if (!name.isIdent()) {
+            skipStatement();
+            return null;
+        }
+        pos++;
+        field.setName(name.text);
+        field.setTextOffset(name.start);
+
+        if (!accept("=")) {
+            skipStatement();
+            return null;
+        }
+        if (peek().type == Type.NUMBER) {
+            field.setNumber(parseInt(next().text));
+        }
+        if (accept("[")) {
+            parseFieldOptions(field.getOptions());
+        }
+        // 编辑中的文件可能还没有写 ;
+        accept(";");
+
+        field.setComment(comment(first));
+        return field;
+    }
+
+    /**
+     * enum 关键字已经读取
+     */
+    @Nullable
+    private ProtoEnum parseEnum(@NotNull Token keyword, @NotNull String scope) {
+
+        Token name = peek();
+        if (!name.isIdent()) {
+            skipStatement();
+            return null;
+        }
+        pos++;
+
+        ProtoEnum protoEnum = new ProtoEnum();
+        protoEnum.setName(name.text);
+        protoEnum.setFullName(join(scope, name.text));
+        protoEnum.setComment(keyword.comment);
+        protoEnum.setTextOffset(name.start);
+        protoFile.getEnumMap().put(protoEnum.getFullName(), protoEnum);
+
+        if (!accept("{")) {
+            skipStatement();
+            return protoEnum;
+        }
+
+        while (!atEnd()) {
+            if (accept("}")) {
+                break;
+            }
+            if (accept(";")) {
+                continue;
+            }
+            Token token = peek();
+            if (token.is("option")) {
+                pos++;
+                parseOption(new LinkedHashMap<>());
+                continue;
+            }
+            if (!token.isIdent() || !peek(1).is("=")) {
+                skipStatement();
+                continue;
+            }
+            pos += 2;
+
+            ProtoEnum.Value value = new ProtoEnum.Value();
+            value.setName(token.text);
+            String sign = accept("-") ? "-" : "";
+            if (peek().type == Type.NUMBER) {
+                value.setNumber(parseInt(sign + next().text));
+            }
+            if (accept("[")) {
+                parseFieldOptions(new LinkedHashMap<>());
+            }
+            accept(";");
+            value.setComment(comment(token));
+            protoEnum.getValues().add(value);
+        }
+        return protoEnum;
+    }
+
+    /**
+     * service 关键字已经读取
+     */
+    @Nullable
+    private ProtoService parseService(@NotNull Token keyword) {
+
+        Token name = peek();
+        if (!name.isIdent()) {
+            skipStatement();
+            return null;
+        }
+        pos++;
+
+        ProtoService service = new ProtoService();
+        service.setName(name.text);
+        service.setFullName(join(protoFile.getPackageName(), name.text));
+        service.setComment(keyword.comment);
+        service.setStartOffset(keyword.start);
+
+        if (!accept("{")) {
+            skipStatement();
+            service.setEndOffset(tokens.get(pos - 1).end);
+            return service;
+        }
+
+        while (!atEnd()) {
+            if (accept("}")) {
+                break;
+            }
+            if (accept(";")) {
+                continue;
+            }
+            Token token = next();
+            if (token.is("option")) {
+                parseOption(new LinkedHashMap<>());
+            } else if (token.is("rpc")) {
+                ProtoRpc rpc = parseRpc(token, service);
+                if (rpc != null) {
+                    service.getRpcs().add(rpc);
+                }
+            } else {
+                pos--;
+                skipStatement();
+            }
+        }
+        service.setEndOffset(tokens.get(pos - 1).end);
+        return service;
+    }
+
+    /**
+     * rpc Name([stream] Request) returns ([stream] Response) (; | { options })
+     */
+    @Nullable
+    private ProtoRpc parseRpc(@NotNull Token keyword, @NotNull ProtoService service) {
+
+        Token name = peek();
+        if (!name.isIdent() || !peek(1).is("(")) {
+            skipStatement();
+            return null;
+        }
+        pos += 2;
+
+        ProtoRpc rpc = new ProtoRpc();
+        rpc.setName(name.text);
+        rpc.setServiceName(service.getName());
+        rpc.setStartOffset(keyword.start);
+
+        if (peek().is("stream") && !peek(1).is(")")) {
+            pos++;
+            rpc.setClientStreaming(true);
+        }
+        rpc.setRequestType(parseTypeName());
+        if (rpc.getRequestType() == null || !accept(")") || !accept("returns") || !accept("(")) {
+            skipStatement();
+            return null;
+        }
+
+        if (peek().is("stream") && !peek(1).is(")")) {
+            pos++;
+            rpc.setServerStreaming(true);
+        }
+        rpc.setResponseType(parseTypeName());
+        if (rpc.getResponseType() == null || !accept(")")) {
+            skipStatement();
+            return null;
+        }
+
+        if (accept("{")) {
+            skipBlock();
+        } else {
+            accept(";");
+        }
+        rpc.setEndOffset(tokens.get(pos - 1).end);
+        rpc.setComment(comment(keyword));
+        return rpc;
+    }
+
+    /**
+     * option 关键字已经读取, option name = constant;
+     */
+    private void parseOption(@NotNull Map<String, String> options) {
+
+        String name = parseOptionName();
+        if (!name.isEmpty() && accept("=")) {
+            options.put(name, parseConstant());
+        }
+        endStatement();
+    }
+
+    /**
+     * [ 已经读取, 解析到 ] 为止
+     */
+    private void parseFieldOptions(@NotNull Map<String, String> options) {
+
+        while (!atEnd()) {
+            String name = parseOptionName();
+            if (!name.isEmpty() && accept("=")) {
+                options.put(name, parseConstant());
+            }
+            if (accept(",")) {
+                continue;
+            }
+            if (accept("]")) {
+                return;
+            }
+            // 不完整的 option, 跳到 ] 或者当前语句结束
+            while (!atEnd() && !peek().is(";") && !peek().is("}")) {
+                if (next().is("]")) {
+                    return;
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * java_package (validate.rules).string.min_len 这样的名称
+     */
+    @NotNull
+    private String parseOptionName() {
+
+        StringBuilder name = new StringBuilder();
+        while (!atEnd()) {
+            Token token = peek();
+            if (token.is("=") || token.is(";") || token.is("]") || token.is("}") || token.is("{")) {
+                break;
+            }
+            name.append(next().text);
+        }
+        return name.toString();
+    }
+
+    /**
+     * 常量, 聚合类型 { } 返回原文
+     */
+    @NotNull
+    private String parseConstant() {
+
+        Token token = peek();
+        if (token.is("{")) {
+            pos++;
+            skipBlock();
+            return text.subSequence(token.start, tokens.get(pos - 1).end).toString();
+        }
+        if (token.type == Type.STRING) {
+            // 相邻的字符串会拼接在一起
+            StringBuilder value = new StringBuilder();
+            while (peek().type == Type.STRING) {
+                value.append(next().text);
+            }
+            return value.toString();
+        }
+        if (token.is("-") || token.is("+")) {
+            pos++;
+            return token.text + next().text;
+        }
+        if (token.isIdent()) {
+            String value = parseTypeName();
+            return value == null ? "" : value;
+        }
+        if (token.type == Type.NUMBER) {
+            return next().text;
+        }
+        return "";
+    }
+
+    /**
+     * [.]foo.bar.Baz
+     */
+    @Nullable
+    private String parseTypeName() {
+
+        StringBuilder name = new StringBuilder();
+        if (peek().is(".") && peek(1).isIdent()) {
+            name.append(next().text);
+        }
+        if (!peek().isIdent()) {
+            return null;
+        }
+        name.append(next().text);
+        while (peek().is(".") && peek(1).isIdent()) {
+            name.append(next().text).append(next().text);
+        }
+        return name.toString();
+    }
+
+    /**
+     * 关键字 名称 { 的形式, 用来区分 message 等关键字和同名的字段类型
+     */
+    private boolean isDeclaration() {
+        return peek(1).isIdent() && peek(2).is("{");
+    }
+
+    /**
+     * 语句结束, 没有 ; 时跳过剩下的部分
+     */
+    private void endStatement() {
+        if (!accept(";")) {
+            skipStatement();
+        }
+    }
+
+    /**
+     * 跳过当前语句, 到 ; 或者一个完整的块为止, 遇到外层块的 } 时不读取
+     */
+    private void skipStatement() {
+
+        while (!atEnd()) {
+            Token token = peek();
+            if (token.is("}")) {
+                return;
+            }
+            pos++;
+            if (token.is(";")) {
+                return;
+            }
+            if (token.is("{")) {
+                skipBlock();
+                return;
+            }
+        }
+    }
+
+    /**
+     * { 已经读取, 跳到对应的 } 之后
+     */
+    private void skipBlock() {
+
+        int depth = 1;
+        while (!atEnd()) {
+            Token token = next();
+            if (token.is("{")) {
+                depth++;
+            } else if (token.is("}") && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 优先使用前置注释, 没有时使用语句结束处的行尾注释
+     */
+    @Nullable
+    private String comment(@NotNull Token first) {
+
+        if (first.comment != null) {
+            return first.comment;
+        }
+        return pos > 0 ? tokens.get(pos - 1).trailingComment : null;
+    }
+
+    private boolean atEnd() {
+        return peek().type == Type.EOF;
+    }
+
+    @NotNull
+    private Token peek() {
+        return peek(0);
+    }
+
+    @NotNull
+    private Token peek(int offset) {
+        return tokens.get(Math.min(pos + offset, tokens.size() - 1));
+    }
+
+    @NotNull
+    private Token next() {
+
+        Token token = peek();
+        if (token.type != Type.EOF) {
+            pos++;
+        }
+        return token;
+    }
+
+    private boolean accept(@NotNull String symbol) {
+
+        if (peek().is(symbol)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private static int parseInt(@NotNull String number) {
+
+        try {
+            return Integer.decode(number);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @NotNull
+    private static String join(@NotNull String scope, @NotNull String name) {
+        return scope.isEmpty() ? name : scope + "." + name;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+/**
+ * 类型引用的解析结果, message 和 enum 只有一个不为空
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoReference {
+
+    /**
+     * 定义所在文件的解析结果
+     */
+    private ProtoFile file;
+
+    private ProtoMessage message;
+
+    private ProtoEnum protoEnum;
+
+    public ProtoReference(ProtoFile file, ProtoMessage message, ProtoEnum protoEnum) {
+        this.file = file;
+        this.message = message;
+        this.protoEnum = protoEnum;
+    }
+
+}
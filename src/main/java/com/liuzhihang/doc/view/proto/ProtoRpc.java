@@ -0,0 +1,50 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+/**
+ * service 中的 rpc 方法
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoRpc {
+
+    /**
+     * 方法名
+     */
+    private String name;
+
+    /**
+     * 所在的 service 名称
+     */
+    private String serviceName;
+
+    /**
+     * 请求类型, 写法和源码一致
+     */
+    private String requestType;
+
+    /**
+     * 响应类型, 写法和源码一致
+     */
+    private String responseType;
+
+    private boolean clientStreaming;
+
+    private boolean serverStreaming;
+
+    /**
+     * 注释
+     */
+    private String comment;
+
+    /**
+     * rpc 关键字到结束的 ; 或者 } 在文件中的位置
+     */
+    private int startOffset;
+
+    private int endOffset;
+
+}
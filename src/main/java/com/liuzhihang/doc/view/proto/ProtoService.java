@@ -0,0 +1,41 @@
+package com.liuzhihang.doc.view.proto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * service 定义
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Data
+public class ProtoService {
+
+    /**
+     * 名称
+     */
+    private String name;
+
+    /**
+     * 包名加上名称
+     */
+    private String fullName;
+
+    /**
+     * 注释
+     */
+    private String comment;
+
+    private List<ProtoRpc> rpcs = new ArrayList<>();
+
+    /**
+     * service 关键字到结束的 } 在文件中的位置
+     */
+    private int startOffset;
+
+    private int endOffset;
+
+}
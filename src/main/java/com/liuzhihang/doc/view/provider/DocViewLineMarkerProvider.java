@@ -3,26 +3,27 @@ package com.liuzhihang.doc.view.provider;
 import com.intellij.codeInsight.daemon.LineMarkerInfo;
 import com.intellij.codeInsight.daemon.LineMarkerProvider;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
-import com.intellij.openapi.project.Project;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiIdentifier;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.liuzhihang.doc.view.config.Settings;
-import com.liuzhihang.doc.view.service.DocViewService;
+import com.liuzhihang.doc.view.service.DocViewCache;
 import com.liuzhihang.doc.view.ui.PreviewForm;
-import com.liuzhihang.doc.view.utils.DocViewUtils;
 import icons.DocViewIcons;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 文档地址:
  * <p>
  * https://plugins.jetbrains.com/docs/intellij/line-marker-provider.html#register-the-line-marker-provider
+ * <p>
+ * 判断类和方法需要查找实现类、注解等, 放在 collectSlowLineMarkers 中批量处理, 判断结果按类缓存, 见 {@link DocViewCache#getDocViewMethods(PsiClass)}
  *
  * @author liuzhihang
  * @date 2021/10/21 16:03
@@ -32,50 +33,48 @@ public class DocViewLineMarkerProvider implements LineMarkerProvider {
 
     @Override
     public LineMarkerInfo<PsiElement> getLineMarkerInfo(@NotNull PsiElement element) {
+        return null;
+    }
 
+    @Override
+    public void collectSlowLineMarkers(@NotNull List<? extends PsiElement> elements,
+                                       @NotNull Collection<? super LineMarkerInfo<?>> result) {
 
-        Project project = element.getProject();
-
-        Settings settings = Settings.getInstance(project);
-
-        if (!settings.getLineMarker()) {
-            return null;
+        if (elements.isEmpty() || !Settings.getInstance(elements.get(0).getProject()).getLineMarker()) {
+            return;
         }
 
-        PsiElement parent = element.getParent();
+        for (PsiElement element : elements) {
+            ProgressManager.checkCanceled();
 
-        if (element instanceof PsiIdentifier) {
+            if (!(element instanceof PsiIdentifier)) {
+                continue;
+            }
 
-            if (parent instanceof PsiClass) {
+            PsiElement parent = element.getParent();
 
-                return createClassLineMarker(element);
+            LineMarkerInfo<PsiElement> lineMarkerInfo = null;
+            if (parent instanceof PsiClass psiClass) {
+                lineMarkerInfo = createClassLineMarker(element, psiClass);
+            } else if (parent instanceof PsiMethod psiMethod) {
+                lineMarkerInfo = createMethodLineMarker(element, psiMethod);
             }
 
-            if (parent instanceof PsiMethod) {
-                return createMethodLineMarker(element);
+            if (lineMarkerInfo != null) {
+                result.add(lineMarkerInfo);
             }
         }
-
-        return null;
     }
 
-    private LineMarkerInfo<PsiElement> createMethodLineMarker(PsiElement element) {
+    private LineMarkerInfo<PsiElement> createMethodLineMarker(PsiElement element, PsiMethod psiMethod) {
 
-        Project project = element.getProject();
-        PsiMethod psiMethod = (PsiMethod) element.getParent();
         PsiClass psiClass = PsiTreeUtil.getParentOfType(psiMethod, PsiClass.class);
 
         if (psiClass == null) {
             return null;
         }
 
-        DocViewService docViewService = checkShowLineMarker(project, psiClass);
-
-        if (docViewService == null) {
-            return null;
-        }
-
-        if (!DocViewUtils.isDocViewMethod(psiMethod)) {
+        if (!DocViewCache.getDocViewMethods(psiClass).contains(psiMethod)) {
             return null;
         }
 
@@ -87,37 +86,9 @@ public class DocViewLineMarkerProvider implements LineMarkerProvider {
                 () -> "Doc View");
     }
 
+    private LineMarkerInfo<PsiElement> createClassLineMarker(PsiElement element, PsiClass psiClass) {
 
-    @Nullable
-    private DocViewService checkShowLineMarker(Project project, PsiClass psiClass) {
-
-        if (DocViewUtils.isDocViewClass(psiClass)) {
-            return DocViewService.getInstance(project, psiClass);
-        }
-
-        return null;
-
-    }
-
-    private LineMarkerInfo<PsiElement> createClassLineMarker(PsiElement element) {
-
-        Project project = element.getProject();
-        PsiClass psiClass = (PsiClass) element.getParent();
-
-        DocViewService docViewService = checkShowLineMarker(project, psiClass);
-
-        if (docViewService == null) {
-            return null;
-        }
-
-        PsiMethod[] methods = psiClass.getAllMethods();
-
-        if (methods.length == 0) {
-            return null;
-        }
-
-        long docViewMethodCount = Arrays.stream(methods).filter(DocViewUtils::isDocViewMethod).count();
-        if (docViewMethodCount == 0) {
+        if (DocViewCache.getDocViewMethods(psiClass).isEmpty()) {
             return null;
         }
 
@@ -0,0 +1,169 @@
+package com.liuzhihang.doc.view.service;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.liuzhihang.doc.view.dto.Body;
+import com.liuzhihang.doc.view.dto.DocView;
+import com.liuzhihang.doc.view.dto.Param;
+import com.liuzhihang.doc.view.utils.BodySchemaCache;
+import com.liuzhihang.doc.view.utils.DocViewUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 方法文档缓存
+ * <p>
+ * 目录树、预览、导出、上传共用同一份 DocView, 方法所在文件以及引用到的参数类所在文件变动时失效.
+ * <p>
+ * 缓存中的 DocView 是共享的, 使用方需要修改时先 {@link DocView#copy()}
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public final class DocViewCache {
+
+    /**
+     * 继承的方法在不同的类中文档不同, 所以按类缓存, 每个方法单独失效
+     */
+    private static final Key<CachedValue<Map<PsiMethod, CachedValue<DocView>>>> CLASS_METHOD_DOC_VIEWS = Key.create("DocView.ClassMethodDocViews");
+
+    private static final Key<CachedValue<Set<PsiMethod>>> CLASS_DOC_VIEW_METHODS = Key.create("DocView.ClassDocViewMethods");
+
+    /**
+     * 设置变动后所有缓存失效
+     */
+    private static final SimpleModificationTracker SETTINGS_TRACKER = new SimpleModificationTracker();
+
+    private DocViewCache() {
+    }
+
+    /**
+     * 获取方法文档, 没有缓存时构建
+     *
+     * @param service   文档服务
+     * @param psiClass  当前类
+     * @param psiMethod 当前方法, 为空时不缓存
+     * @return 文档
+     */
+    @NotNull
+    public static DocView getClassMethodDoc(@NotNull DocViewService service, PsiClass psiClass, PsiMethod psiMethod) {
+
+        if (psiClass == null || psiMethod == null || !psiClass.isPhysical() || !psiMethod.isPhysical()) {
+            return service.buildClassMethodDoc(psiClass, psiMethod);
+        }
+
+        Map<PsiMethod, CachedValue<DocView>> docViews = CachedValuesManager.getCachedValue(psiClass, CLASS_METHOD_DOC_VIEWS,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(), dependencies(psiClass)));
+
+        return docViews.computeIfAbsent(psiMethod, method -> CachedValuesManager.getManager(psiClass.getProject())
+                .createCachedValue(() -> {
+                    DocView value = service.buildClassMethodDoc(psiClass, method);
+                    return CachedValueProvider.Result.create(value, dependencies(value, method));
+                }, false)).getValue();
+    }
+
+    /**
+     * 获取类中可以生成文档的方法, 包含父类的方法
+     * <p>
+     * Dubbo 等判断需要查找实现类和 xml 配置, 所以任意 PSI 变动时失效
+     *
+     * @param psiClass 当前类
+     * @return 不是 DocView 的类时返回空集合
+     */
+    @NotNull
+    public static Set<PsiMethod> getDocViewMethods(@NotNull PsiClass psiClass) {
+
+        return CachedValuesManager.getCachedValue(psiClass, CLASS_DOC_VIEW_METHODS, () -> {
+            Set<PsiMethod> methods = new HashSet<>();
+            if (DocViewUtils.isDocViewClass(psiClass)
+                    && DocViewService.getInstance(psiClass.getProject(), psiClass) != null) {
+                for (PsiMethod method : psiClass.getAllMethods()) {
+                    if (DocViewUtils.isDocViewMethod(method)) {
+                        methods.add(method);
+                    }
+                }
+            }
+            return CachedValueProvider.Result.create(methods.isEmpty() ? Set.of() : Collections.unmodifiableSet(methods),
+                    PsiModificationTracker.MODIFICATION_COUNT, SETTINGS_TRACKER);
+        });
+    }
+
+    /**
+     * 设置变动, 清除所有缓存
+     */
+    public static void clear() {
+        SETTINGS_TRACKER.incModificationCount();
+        BodySchemaCache.clear();
+    }
+
+    /**
+     * 类的文档集合依赖的文件: 类所在的文件, 类变动后方法可能增删
+     */
+    private static Object[] dependencies(@NotNull PsiClass psiClass) {
+
+        Set<Object> dependencies = new LinkedHashSet<>();
+        dependencies.add(SETTINGS_TRACKER);
+        addFile(dependencies, psiClass);
+
+        return dependencies.toArray();
+    }
+
+    /**
+     * 文档依赖的文件: 方法所在的文件, 请求/返回参数中引用到的类所在的文件
+     */
+    private static Object[] dependencies(@NotNull DocView docView, @NotNull PsiMethod psiMethod) {
+
+        Set<Object> dependencies = new LinkedHashSet<>();
+        dependencies.add(SETTINGS_TRACKER);
+        addFile(dependencies, psiMethod);
+        addFile(dependencies, docView.getPsiClass());
+        addBody(dependencies, docView.getReqBody());
+        addBody(dependencies, docView.getRespBody());
+        addParams(dependencies, docView.getReqParamList());
+
+        return dependencies.toArray();
+    }
+
+    private static void addBody(@NotNull Set<Object> dependencies, Body body) {
+
+        if (body == null) {
+            return;
+        }
+        addFile(dependencies, body.getPsiElement());
+        for (Body child : body.getChildList()) {
+            addBody(dependencies, child);
+        }
+    }
+
+    private static void addParams(@NotNull Set<Object> dependencies, List<Param> params) {
+
+        if (params == null) {
+            return;
+        }
+        for (Param param : params) {
+            addFile(dependencies, param.getPsiElement());
+        }
+    }
+
+    private static void addFile(@NotNull Set<Object> dependencies, PsiElement psiElement) {
+
+        if (psiElement == null || !psiElement.isValid()) {
+            return;
+        }
+        PsiFile psiFile = psiElement.getContainingFile();
+        if (psiFile != null) {
+            dependencies.add(psiFile);
+        }
+    }
+
+}
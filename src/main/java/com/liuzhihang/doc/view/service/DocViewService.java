@@ -87,7 +87,7 @@ public interface DocViewService {
     default List<DocView> buildDoc(@NotNull PsiClass targetClass, PsiMethod targetMethod) {
 
         if (targetMethod != null && checkMethod(targetMethod)) {
-            DocView docView = buildClassMethodDoc(targetClass, targetMethod);
+            DocView docView = getClassMethodDoc(targetClass, targetMethod);
 
             List<DocView> docViewList = new LinkedList<>();
             docViewList.add(docView);
@@ -107,7 +107,10 @@ public interface DocViewService {
                 if (nameSet.contains(currentName)) {
                     nameSet.remove(currentName);
                 } else {
-                    docView.setName(docView.getName() + "_" + RandomStringUtils.randomAlphabetic(5) + i);
+                    // 文档可能来自缓存, 修改前先拷贝
+                    DocView renamed = docView.copy();
+                    renamed.setName(docView.getName() + "_" + RandomStringUtils.randomAlphabetic(5) + i);
+                    docViews.set(i, renamed);
                 }
 
             }
@@ -137,4 +140,19 @@ public interface DocViewService {
      */
     @NotNull DocView buildClassMethodDoc(PsiClass psiClass, @NotNull PsiMethod psiMethod);
 
+    /**
+     * 获取方法文档, 优先从缓存中获取
+     * <p>
+     * 返回的文档可能被多处共享, 不要直接修改
+     *
+     * @param psiClass  当前类
+     * @param psiMethod 当前方法
+     * @return 文档
+     * @see DocViewCache
+     */
+    @NotNull
+    default DocView getClassMethodDoc(PsiClass psiClass, PsiMethod psiMethod) {
+        return DocViewCache.getClassMethodDoc(this, psiClass, psiMethod);
+    }
+
 }
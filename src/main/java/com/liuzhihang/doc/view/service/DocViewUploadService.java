@@ -5,13 +5,17 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.UserDataHolderEx;
 import com.liuzhihang.doc.view.dto.DocView;
 import com.liuzhihang.doc.view.service.impl.ShowDocServiceImpl;
 import com.liuzhihang.doc.view.service.impl.YApiServiceImpl;
 import com.liuzhihang.doc.view.service.impl.YuQueServiceImpl;
+import com.liuzhihang.doc.view.utils.UploadPipeline;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 上传到 showDoc
@@ -41,10 +45,11 @@ public interface DocViewUploadService {
     }
 
     /**
-     * 批量上传, 都是循环调用的单个上传接口
+     * 批量上传, 在读操作中准备上传内容, 网络请求在读操作之外并发执行
      *
      * @param project
      * @param docViewList
+     * @see UploadPipeline
      */
     default void upload(@NotNull Project project, @NotNull List<DocView> docViewList) {
 
@@ -56,43 +61,22 @@ public interface DocViewUploadService {
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View upload", true) {
             @Override
             public void run(@NotNull ProgressIndicator progressIndicator) {
-                ApplicationManager.getApplication().executeOnPooledThread(() -> ApplicationManager.getApplication().runReadAction(() -> {
-
-                    for (DocView docView : docViewList) {
-                        doUpload(project, docView);
-                    }
-                }));
+                UploadPipeline.upload(project, DocViewUploadService.this, docViewList, progressIndicator);
             }
         });
 
     }
 
     /**
-     * 上传到 showDoc
+     * 上传单个文档
      *
      * @param project
      * @param docView
      */
     default void upload(@NotNull Project project, @NotNull DocView docView) {
-
-        if (!checkSettings(project)) {
-            // 没有配置相关地址 token 等
-            return;
-        }
-
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View upload", true) {
-            @Override
-            public void run(@NotNull ProgressIndicator progressIndicator) {
-                ApplicationManager.getApplication().executeOnPooledThread(() -> ApplicationManager.getApplication().runReadAction(() -> {
-                    doUpload(project, docView);
-                }));
-            }
-        });
+        upload(project, List.of(docView));
     }
 
-    ;
-
-
     /**
      * 检查配置
      *
@@ -102,10 +86,90 @@ public interface DocViewUploadService {
     boolean checkSettings(@NotNull Project project);
 
     /**
-     * 请求上传
+     * 限流使用的目标服务器
+     *
+     * @param project
+     * @return 服务器地址
+     */
+    @NotNull
+    String target(@NotNull Project project);
+
+    /**
+     * 在读操作中准备上传的内容
      *
      * @param project
      * @param docView
+     * @param session 同一次上传的文档共用, 可以缓存服务器上的目录等
+     * @return 上传请求, 在读操作之外执行
+     * @throws Exception 准备失败
+     */
+    @NotNull
+    UploadRequest prepare(@NotNull Project project, @NotNull DocView docView, @NotNull UserDataHolderEx session) throws Exception;
+
+    /**
+     * 准备或者上传失败
+     *
+     * @param project
+     * @param docView
+     * @param e
+     */
+    void uploadFailed(@NotNull Project project, @NotNull DocView docView, @NotNull Exception e);
+
+    /**
+     * 上传请求, 只包含网络请求, 不能访问 PSI, 使用异步请求, 不占用等待的线程
      */
-    void doUpload(@NotNull Project project, @NotNull DocView docView);
+    @FunctionalInterface
+    interface UploadRequest {
+
+        /**
+         * 增量上传时判断内容是否变化
+         *
+         * @param key     文档在目标服务器上的唯一标识
+         * @param content 上传的内容, 和上一次上传成功时相同则跳过
+         * @param request 请求
+         * @return 请求
+         */
+        @NotNull
+        static UploadRequest incremental(@NotNull String key, @NotNull String content, @NotNull UploadRequest request) {
+            return new UploadRequest() {
+                @Override
+                public String key() {
+                    return key;
+                }
+
+                @Override
+                public String content() {
+                    return content;
+                }
+
+                @Override
+                public CompletableFuture<?> send() {
+                    return request.send();
+                }
+            };
+        }
+
+        /**
+         * @return 文档在目标服务器上的唯一标识, 为空时每次都上传
+         */
+        @Nullable
+        default String key() {
+            return null;
+        }
+
+        /**
+         * @return 上传的内容
+         */
+        @Nullable
+        default String content() {
+            return null;
+        }
+
+        /**
+         * 发送请求
+         *
+         * @return 上传失败时以异常结束
+         */
+        CompletableFuture<?> send();
+    }
 }
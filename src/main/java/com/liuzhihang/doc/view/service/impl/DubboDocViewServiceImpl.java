@@ -3,6 +3,7 @@ package com.liuzhihang.doc.view.service.impl;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiType;
+import com.liuzhihang.doc.view.dto.Body;
 import com.liuzhihang.doc.view.dto.DocView;
 import com.liuzhihang.doc.view.enums.ContentTypeEnum;
 import com.liuzhihang.doc.view.enums.FrameworkEnum;
@@ -53,7 +54,7 @@ public class DubboDocViewServiceImpl implements DocViewService {
                 continue;
             }
 
-            DocView docView = buildClassMethodDoc(psiClass, method);
+            DocView docView = getClassMethodDoc(psiClass, method);
             docViewList.add(docView);
         }
 
@@ -84,16 +85,18 @@ public class DubboDocViewServiceImpl implements DocViewService {
 
         // 有参数
         if (psiMethod.hasParameters()) {
-            docView.setReqBody(DubboPsiUtils.buildBody(psiMethod));
+            Body reqBody = DubboPsiUtils.buildBody(psiMethod);
+            docView.setReqBody(reqBody);
             docView.setContentType(ContentTypeEnum.JSON);
-            docView.setReqBodyExample(DubboPsiUtils.getReqBodyJson(psiMethod));
+            docView.setReqBodyExample(DubboPsiUtils.getReqBodyJson(reqBody));
         }
 
         PsiType returnType = psiMethod.getReturnType();
         // 返回代码相同
         if (returnType != null && returnType.isValid() && !returnType.equalsToText("void")) {
-            docView.setRespBody(ParamPsiUtils.buildRespBody(returnType));
-            docView.setRespExample(ParamPsiUtils.getRespBodyJson(returnType));
+            Body respBody = ParamPsiUtils.buildRespBody(returnType);
+            docView.setRespBody(respBody);
+            docView.setRespExample(ParamPsiUtils.getRespBodyJson(returnType, respBody));
         }
         return docView;
 
@@ -2,6 +2,7 @@ package com.liuzhihang.doc.view.service.impl;
 
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
+import com.liuzhihang.doc.view.dto.Body;
 import com.liuzhihang.doc.view.dto.DocView;
 import com.liuzhihang.doc.view.enums.FrameworkEnum;
 import com.liuzhihang.doc.view.service.DocViewService;
@@ -52,8 +53,9 @@ public class PojoDocViewServiceImpl implements DocViewService {
         docView.setName(psiClass.getName());
         docView.setType(FrameworkEnum.NONE_POJO);
         docView.setDomain(Collections.emptyList());
-        docView.setReqBody(PojoUtils.buildBody(psiClass));
-        docView.setReqBodyExample(PojoUtils.reqBodyJson(psiClass));
+        Body reqBody = PojoUtils.buildBody(psiClass);
+        docView.setReqBody(reqBody);
+        docView.setReqBodyExample(PojoUtils.reqBodyJson(reqBody));
         return docView;
     }
 
@@ -4,6 +4,7 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.options.ShowSettingsUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.UserDataHolderEx;
 import com.liuzhihang.doc.view.DocViewBundle;
 import com.liuzhihang.doc.view.config.ShowDocSettings;
 import com.liuzhihang.doc.view.config.ShowDocSettingsConfigurable;
@@ -43,31 +44,43 @@ public final class ShowDocServiceImpl implements DocViewUploadService {
         return true;
     }
 
+    @NotNull
     @Override
-    public void doUpload(@NotNull Project project, @NotNull DocView docView) {
+    public String target(@NotNull Project project) {
+        return ShowDocSettings.getInstance(project).getUrl();
+    }
+
+    @NotNull
+    @Override
+    public UploadRequest prepare(@NotNull Project project, @NotNull DocView docView, @NotNull UserDataHolderEx session) {
+
+        ShowDocSettings settings = ShowDocSettings.getInstance(project);
 
-        try {
-            ShowDocSettings settings = ShowDocSettings.getInstance(project);
+        ShowDocUpdateRequest request = new ShowDocUpdateRequest();
+        request.setShowDocUrl(settings.getUrl());
+        request.setApiKey(settings.getApiKey());
+        request.setApiToken(settings.getApiToken());
+        request.setCatName(docView.getDocTitle());
+        request.setPageTitle(docView.getName());
+        request.setPageContent(DocViewData.markdownText(project, docView));
 
-            ShowDocUpdateRequest request = new ShowDocUpdateRequest();
-            request.setShowDocUrl(settings.getUrl());
-            request.setApiKey(settings.getApiKey());
-            request.setApiToken(settings.getApiToken());
-            request.setCatName(docView.getDocTitle());
-            request.setPageTitle(docView.getName());
-            request.setPageContent(DocViewData.markdownText(project, docView));
+        String key = settings.getApiKey() + "|" + request.getCatName() + "/" + request.getPageTitle();
 
+        return UploadRequest.incremental(key, request.getPageContent(), () -> {
             ShowDocFacadeService facadeService = ApplicationManager.getApplication().getService(ShowDocFacadeServiceImpl.class);
-            ShowDocUpdateResponse response = facadeService.updateByApi(request);
+            return facadeService.updateByApiAsync(request).thenAccept(response -> {
+                ShowDocUpdateResponse.DataInner data = response.getData();
 
-            ShowDocUpdateResponse.DataInner data = response.getData();
+                String showDocInterfaceUrl = settings.getUrl() + "/" + data.getItemId() + "/" + data.getPageId();
 
-            String showDocInterfaceUrl = settings.getUrl() + "/" + data.getItemId() + "/" + data.getPageId();
+                DocViewNotification.uploadSuccess(project, "ShowDoc", showDocInterfaceUrl);
+            });
+        });
+    }
 
-            DocViewNotification.uploadSuccess(project, "ShowDoc", showDocInterfaceUrl);
-        } catch (Exception e) {
-            DocViewNotification.notifyError(project, DocViewBundle.message("notify.showdoc.upload.error"));
-            log.error("上传单个文档失败:{}", docView, e);
-        }
+    @Override
+    public void uploadFailed(@NotNull Project project, @NotNull DocView docView, @NotNull Exception e) {
+        DocViewNotification.notifyError(project, DocViewBundle.message("notify.showdoc.upload.error"));
+        log.error("上传单个文档失败:{}", docView, e);
     }
 }
@@ -4,6 +4,7 @@ import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiType;
+import com.liuzhihang.doc.view.dto.Body;
 import com.liuzhihang.doc.view.dto.DocView;
 import com.liuzhihang.doc.view.enums.ContentTypeEnum;
 import com.liuzhihang.doc.view.enums.FrameworkEnum;
@@ -43,7 +44,7 @@ public class SpringDocViewServiceImpl implements DocViewService {
                 continue;
             }
 
-            DocView docView = buildClassMethodDoc(psiClass, method);
+            DocView docView = getClassMethodDoc(psiClass, method);
             docViewList.add(docView);
         }
 
@@ -79,8 +80,9 @@ public class SpringDocViewServiceImpl implements DocViewService {
                 // JSON 请求可能会有 body
                 PsiParameter requestBodyParam = SpringPsiUtils.requestBodyParam(psiMethod);
                 if (requestBodyParam != null) {
-                    docView.setReqBody(SpringPsiUtils.buildBody(requestBodyParam));
-                    docView.setReqBodyExample(SpringPsiUtils.reqBodyJson(requestBodyParam));
+                    Body reqBody = SpringPsiUtils.buildBody(requestBodyParam);
+                    docView.setReqBody(reqBody);
+                    docView.setReqBodyExample(SpringPsiUtils.reqBodyJson(reqBody));
                 }
             }
         } else {
@@ -91,8 +93,9 @@ public class SpringDocViewServiceImpl implements DocViewService {
 
         PsiType returnType = psiMethod.getReturnType();
         if (returnType != null && returnType.isValid() && !returnType.equalsToText(VOID)) {
-            docView.setRespBody(ParamPsiUtils.buildRespBody(returnType));
-            docView.setRespExample(ParamPsiUtils.getRespBodyJson(returnType));
+            Body respBody = ParamPsiUtils.buildRespBody(returnType);
+            docView.setRespBody(respBody);
+            docView.setRespExample(ParamPsiUtils.getRespBodyJson(returnType, respBody));
         }
         return docView;
     }
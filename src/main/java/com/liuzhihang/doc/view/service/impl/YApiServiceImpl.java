@@ -2,9 +2,16 @@ package com.liuzhihang.doc.view.service.impl;
 
 import com.google.gson.Gson;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.options.ShowSettingsUtil;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.UserDataHolderEx;
 import com.intellij.psi.*;
 import com.liuzhihang.doc.view.DocViewBundle;
 import com.liuzhihang.doc.view.config.YApiSettings;
@@ -15,11 +22,13 @@ import com.liuzhihang.doc.view.enums.ContentTypeEnum;
 import com.liuzhihang.doc.view.integration.YApiFacadeService;
 import com.liuzhihang.doc.view.integration.dto.YApiCat;
 import com.liuzhihang.doc.view.integration.dto.YApiHeader;
+import com.liuzhihang.doc.view.integration.dto.YApiImport;
 import com.liuzhihang.doc.view.integration.dto.YApiQuery;
 import com.liuzhihang.doc.view.integration.dto.YapiSave;
 import com.liuzhihang.doc.view.integration.impl.YApiFacadeServiceImpl;
 import com.liuzhihang.doc.view.notification.DocViewNotification;
 import com.liuzhihang.doc.view.service.DocViewUploadService;
+import com.liuzhihang.doc.view.utils.UploadFingerprints;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -27,8 +36,12 @@ import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +56,7 @@ import java.util.stream.Collectors;
 @Service
 public final class YApiServiceImpl implements DocViewUploadService {
 
+    private static final Key<CatMenu> CAT_MENU = Key.create("DocView.YApiCatMenu");
 
     @Override
     public boolean checkSettings(@NotNull Project project) {
@@ -60,61 +74,305 @@ public final class YApiServiceImpl implements DocViewUploadService {
         return true;
     }
 
+    /**
+     * 开启批量导入时, 多个文档转换为一个 swagger 文档导入
+     */
+    @Override
+    public void upload(@NotNull Project project, @NotNull List<DocView> docViewList) {
+
+        if (docViewList.size() <= 1 || !Boolean.TRUE.equals(YApiSettings.getInstance(project).getBulkImport())) {
+            DocViewUploadService.super.upload(project, docViewList);
+            return;
+        }
+
+        if (!checkSettings(project)) {
+            // 没有配置相关地址 token 等
+            return;
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View upload", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator progressIndicator) {
+                try {
+                    YApiSettings settings = YApiSettings.getInstance(project);
+                    UploadFingerprints fingerprints = UploadFingerprints.load(project, YApiServiceImpl.this.getClass().getName(), target(project));
+
+                    // 和上一次上传成功的内容相同的文档不再导入
+                    BulkImport bulkImport = ReadAction.nonBlocking(() -> prepareBulkImport(project, docViewList, fingerprints))
+                            .inSmartMode(project)
+                            .wrapProgress(progressIndicator)
+                            .executeSynchronously();
+
+                    if (bulkImport.skipped() > 0) {
+                        DocViewNotification.notifyInfo(project, DocViewBundle.message("notify.upload.unchanged", bulkImport.skipped()));
+                    }
+                    if (bulkImport.json() == null) {
+                        return;
+                    }
+
+                    YApiImport yApiImport = new YApiImport();
+                    yApiImport.setYapiUrl(settings.getUrl());
+                    yApiImport.setToken(settings.getToken());
+                    yApiImport.setJson(bulkImport.json());
+
+                    YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
+                    facadeService.importData(yApiImport);
+
+                    bulkImport.contents().forEach(fingerprints::uploaded);
+                    try {
+                        fingerprints.save();
+                    } catch (IOException e) {
+                        log.warn("Doc View save upload fingerprints failed", e);
+                    }
+
+                    String yapiProjectUrl = settings.getUrl() + "/project/" + settings.getProjectId() + "/interface/api";
+
+                    DocViewNotification.uploadSuccess(project, "YApi", yapiProjectUrl);
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    DocViewNotification.notifyError(project, DocViewBundle.message("notify.yapi.upload.error", e.getMessage()));
+                    log.error("批量导入文档失败", e);
+                }
+            }
+        });
+    }
+
+    @NotNull
+    @Override
+    public String target(@NotNull Project project) {
+        return YApiSettings.getInstance(project).getUrl();
+    }
+
+    @NotNull
+    @Override
+    public UploadRequest prepare(@NotNull Project project, @NotNull DocView docView, @NotNull UserDataHolderEx session) {
+
+        YApiSettings settings = YApiSettings.getInstance(project);
+
+        YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
+
+        String catName = docView.getDocTitle();
+
+        YapiSave save = buildSave(settings, docView);
+
+        CatMenu catMenu = session.putUserDataIfAbsent(CAT_MENU, new CatMenu());
+
+        String key = fingerprintKey(settings, save);
+        String content = fingerprintContent(catName, save);
+
+        return UploadRequest.incremental(key, content, () -> catMenu.getOrAddCat(settings, catName)
+                .thenCompose(cat -> {
+                    save.setCatId(cat.getId());
+                    return facadeService.saveAsync(save).thenRun(() -> {
+                        String yapiInterfaceUrl = settings.getUrl() + "/project/" + settings.getProjectId() + "/interface/api/cat_" + cat.getId();
+
+                        DocViewNotification.uploadSuccess(project, "YApi", yapiInterfaceUrl);
+                    });
+                }));
+    }
+
     @Override
-    public void doUpload(@NotNull Project project, @NotNull DocView docView) {
+    public void uploadFailed(@NotNull Project project, @NotNull DocView docView, @NotNull Exception e) {
+        DocViewNotification.notifyError(project, DocViewBundle.message("notify.yapi.upload.error", e.getMessage()));
+        log.error("上传单个文档失败:{}", docView, e);
+    }
 
-        try {
-            YApiSettings settings = YApiSettings.getInstance(project);
+    /**
+     * 构造单个接口的上传内容
+     */
+    @NotNull
+    private YapiSave buildSave(@NotNull YApiSettings settings, @NotNull DocView docView) {
+
+        YapiSave save = new YapiSave();
+        save.setYapiUrl(settings.getUrl());
+        save.setToken(settings.getToken());
+        save.setProjectId(settings.getProjectId());
+
+        if ("Dubbo".equals(docView.getMethod())) {
+            // dubbo 接口处理
+            save.setPath("/Dubbo/" + docView.getPsiMethod().getName());
+            save.setMethod("POST");
+        } else {
+            save.setMethod(docView.getMethod());
+            save.setPath(docView.getPath());
+        }
+        // 枚举: raw,form,json
+        save.setReqBodyType(docView.getContentType().toString().toLowerCase());
+        save.setReqBodyForm(new ArrayList<>());
+        save.setReqParams(new ArrayList<>());
+        save.setReqHeaders(buildReqHeaders(docView.getHeaderList()));
+        save.setReqQuery(buildReqQuery(docView.getReqParamList()));
+        save.setResBodyType("json");
+        save.setResBody(buildJsonSchema(docView.getRespBody().getChildList()));
+        String markdown = buildDesc(docView);
+        save.setMarkdown(markdown);
+        save.setTitle(docView.getPath() + docView.getName());
+        Parser parser = Parser.builder().build();
+        Node document = parser.parse(markdown);
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        save.setDesc(renderer.render(document));
+
+        if (docView.getContentType().equals(ContentTypeEnum.JSON)) {
+            save.setReqBodyIsJsonSchema(true);
+            save.setReqBodyOther(buildJsonSchema(docView.getReqBody().getChildList()));
+        }
 
-            YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
+        return save;
+    }
 
-            YApiCat cat = getOrAddCat(settings, docView.getDocTitle());
+    /**
+     * 增量上传的唯一标识, 单个上传和批量导入共用
+     */
+    @NotNull
+    private static String fingerprintKey(@NotNull YApiSettings settings, @NotNull YapiSave save) {
+        return settings.getProjectId() + "|" + save.getMethod() + " " + save.getPath();
+    }
 
-            YapiSave save = new YapiSave();
-            save.setYapiUrl(settings.getUrl());
-            save.setToken(settings.getToken());
-            save.setProjectId(settings.getProjectId());
-            save.setCatId(cat.getId());
+    /**
+     * 增量上传比较的内容, 单个上传和批量导入共用
+     */
+    @NotNull
+    private static String fingerprintContent(@NotNull String catName, @NotNull YapiSave save) {
+        return catName + "\n" + new Gson().toJson(save);
+    }
 
+    /**
+     * 过滤内容没有变化的文档后构造 swagger 文档
+     *
+     * @return 全部没有变化时 json 为 null
+     */
+    @NotNull
+    private BulkImport prepareBulkImport(@NotNull Project project, @NotNull List<DocView> docViewList,
+                                         @NotNull UploadFingerprints fingerprints) {
+
+        YApiSettings settings = YApiSettings.getInstance(project);
+
+        List<DocView> changedList = new ArrayList<>();
+        Map<String, String> contents = new LinkedHashMap<>();
+        for (DocView docView : docViewList) {
+            ProgressManager.checkCanceled();
+
+            YapiSave save = buildSave(settings, docView);
+            String key = fingerprintKey(settings, save);
+            String content = fingerprintContent(docView.getDocTitle(), save);
+            if (!fingerprints.isUnchanged(key, content)) {
+                changedList.add(docView);
+                contents.put(key, content);
+            }
+        }
+
+        String json = changedList.isEmpty() ? null : buildSwagger(project, changedList);
+        return new BulkImport(json, contents, docViewList.size() - changedList.size());
+    }
+
+    /**
+     * 批量导入的内容
+     *
+     * @param json     swagger 文档
+     * @param contents 导入成功后记录的指纹
+     * @param skipped  内容没有变化跳过的文档数
+     */
+    private record BulkImport(@Nullable String json, @NotNull Map<String, String> contents, int skipped) {
+    }
+
+    /**
+     * 构造 swagger 2.0 文档, 分类使用 tags
+     */
+    @NotNull
+    private String buildSwagger(@NotNull Project project, @NotNull List<DocView> docViewList) {
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("title", project.getName());
+        info.put("version", "1.0.0");
+
+        Set<String> tagNames = new LinkedHashSet<>();
+        Map<String, Map<String, Object>> paths = new LinkedHashMap<>();
+
+        for (DocView docView : docViewList) {
+            ProgressManager.checkCanceled();
+
+            String path;
+            String method;
             if ("Dubbo".equals(docView.getMethod())) {
                 // dubbo 接口处理
-                save.setPath("/Dubbo/" + docView.getPsiMethod().getName());
-                save.setMethod("POST");
+                path = "/Dubbo/" + docView.getPsiMethod().getName();
+                method = "POST";
             } else {
-                save.setMethod(docView.getMethod());
-                save.setPath(docView.getPath());
-            }
-            // 枚举: raw,form,json
-            save.setReqBodyType(docView.getContentType().toString().toLowerCase());
-            save.setReqBodyForm(new ArrayList<>());
-            save.setReqParams(new ArrayList<>());
-            save.setReqHeaders(buildReqHeaders(docView.getHeaderList()));
-            save.setReqQuery(buildReqQuery(docView.getReqParamList()));
-            save.setResBodyType("json");
-            save.setResBody(buildJsonSchema(docView.getRespBody().getChildList()));
-            String markdown = buildDesc(docView);
-            save.setMarkdown(markdown);
-            save.setTitle(docView.getPath() + docView.getName());
-            Parser parser = Parser.builder().build();
-            Node document = parser.parse(markdown);
-            HtmlRenderer renderer = HtmlRenderer.builder().build();
-            save.setDesc(renderer.render(document));
-
-            if (docView.getContentType().equals(ContentTypeEnum.JSON)) {
-                save.setReqBodyIsJsonSchema(true);
-                save.setReqBodyOther(buildJsonSchema(docView.getReqBody().getChildList()));
+                path = docView.getPath();
+                method = docView.getMethod();
             }
 
-            facadeService.save(save);
+            tagNames.add(docView.getDocTitle());
+            paths.computeIfAbsent(path, key -> new LinkedHashMap<>())
+                    .put(method.toLowerCase(), buildOperation(docView));
+        }
 
-            String yapiInterfaceUrl = settings.getUrl() + "/project/" + settings.getProjectId() + "/interface/api/cat_" + cat.getId();
+        List<Map<String, Object>> tags = tagNames.stream()
+                .map(name -> Map.<String, Object>of("name", name))
+                .collect(Collectors.toList());
 
-            DocViewNotification.uploadSuccess(project, "YApi", yapiInterfaceUrl);
-        } catch (Exception e) {
-            DocViewNotification.notifyError(project, DocViewBundle.message("notify.yapi.upload.error", e.getMessage()));
-            log.error("上传单个文档失败:{}", docView, e);
+        Map<String, Object> swagger = new LinkedHashMap<>();
+        swagger.put("swagger", "2.0");
+        swagger.put("info", info);
+        swagger.put("tags", tags);
+        swagger.put("paths", paths);
+
+        return new Gson().toJson(swagger);
+    }
+
+    @NotNull
+    private Map<String, Object> buildOperation(@NotNull DocView docView) {
+
+        List<Map<String, Object>> parameters = new ArrayList<>();
+
+        for (YApiHeader header : buildReqHeaders(docView.getHeaderList())) {
+            Map<String, Object> parameter = new LinkedHashMap<>();
+            parameter.put("name", header.getName());
+            parameter.put("in", "header");
+            parameter.put("required", "1".equals(header.getRequired()));
+            parameter.put("type", "string");
+            parameter.put("default", header.getValue());
+            parameter.put("description", header.getDesc());
+            parameters.add(parameter);
+        }
+
+        for (YApiQuery query : buildReqQuery(docView.getReqParamList())) {
+            Map<String, Object> parameter = new LinkedHashMap<>();
+            parameter.put("name", query.getName());
+            parameter.put("in", "query");
+            parameter.put("required", "1".equals(query.getRequired()));
+            parameter.put("type", "string");
+            parameter.put("description", query.getDesc());
+            parameters.add(parameter);
+        }
+
+        if (docView.getContentType().equals(ContentTypeEnum.JSON)) {
+            Map<String, Object> parameter = new LinkedHashMap<>();
+            parameter.put("name", "root");
+            parameter.put("in", "body");
+            parameter.put("schema", buildJsonSchemaMap(docView.getReqBody().getChildList()));
+            parameters.add(parameter);
         }
 
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("description", "successful operation");
+        response.put("schema", buildJsonSchemaMap(docView.getRespBody().getChildList()));
+
+        String markdown = buildDesc(docView);
+        Parser parser = Parser.builder().build();
+        Node document = parser.parse(markdown);
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("tags", List.of(docView.getDocTitle()));
+        operation.put("summary", docView.getPath() + docView.getName());
+        operation.put("description", renderer.render(document));
+        operation.put("consumes", List.of(docView.getContentType().getValue()));
+        operation.put("produces", List.of(ContentTypeEnum.JSON.getValue()));
+        operation.put("parameters", parameters);
+        operation.put("responses", Map.of("200", response));
+        return operation;
     }
 
     /**
@@ -151,6 +409,11 @@ public final class YApiServiceImpl implements DocViewUploadService {
      * items: 数组类型时内部元素
      */
     private String buildJsonSchema(List<Body> bodyList) {
+        return new Gson().toJson(buildJsonSchemaMap(bodyList));
+    }
+
+    @NotNull
+    private Map<String, Object> buildJsonSchemaMap(List<Body> bodyList) {
 
         List<String> requiredList = new LinkedList<>();
 
@@ -165,7 +428,7 @@ public final class YApiServiceImpl implements DocViewUploadService {
         schema.put("description", " ");
         schema.put("properties", properties);
 
-        return new Gson().toJson(schema);
+        return schema;
     }
 
     /**
@@ -364,29 +627,67 @@ public final class YApiServiceImpl implements DocViewUploadService {
 
     }
 
-    @NotNull
-    private YApiCat getOrAddCat(@NotNull YApiSettings settings, @NotNull String name) throws Exception {
-
-        YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
-
-        // 检查 catId (菜单是否存在)
-        List<YApiCat> catMenu = facadeService.getCatMenu(settings.getUrl(), settings.getProjectId(), settings.getToken());
-
-        Optional<YApiCat> catOptional = catMenu.stream()
-                .filter(yApiCat -> yApiCat.getName().equals(name))
-                .findAny();
-
-        if (catOptional.isPresent()) {
-            return catOptional.get();
+    /**
+     * 一次上传中共用的 YApi 菜单
+     * <p>
+     * 菜单只在第一次使用时获取, 同名的分类只新增一次, 其他文档等待新增的结果
+     */
+    private static class CatMenu {
+
+        /**
+         * key 为分类名称
+         */
+        private final Map<String, CompletableFuture<YApiCat>> cats = new ConcurrentHashMap<>();
+
+        private CompletableFuture<Void> loading;
+
+        @NotNull
+        private CompletableFuture<YApiCat> getOrAddCat(@NotNull YApiSettings settings, @NotNull String name) {
+
+            return load(settings).thenCompose(v -> {
+                CompletableFuture<YApiCat> adding = new CompletableFuture<>();
+                CompletableFuture<YApiCat> existing = cats.putIfAbsent(name, adding);
+                if (existing != null) {
+                    return existing;
+                }
+
+                YApiCat cat = new YApiCat();
+                cat.setYapiUrl(settings.getUrl());
+                cat.setProjectId(settings.getProjectId());
+                cat.setName(name);
+                cat.setToken(settings.getToken());
+
+                YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
+                facadeService.addCatAsync(cat).whenComplete((added, e) -> {
+                    if (e != null) {
+                        // 新增失败时其他文档重新尝试
+                        cats.remove(name, adding);
+                        adding.completeExceptionally(e);
+                    } else {
+                        adding.complete(added);
+                    }
+                });
+                return adding;
+            });
         }
-        YApiCat cat = new YApiCat();
-        cat.setYapiUrl(settings.getUrl());
-        cat.setProjectId(settings.getProjectId());
-        cat.setName(name);
-        cat.setToken(settings.getToken());
-
-        return facadeService.addCat(cat);
 
+        /**
+         * 检查 catId (菜单是否存在), 获取失败时下一个文档重新获取
+         */
+        @NotNull
+        private synchronized CompletableFuture<Void> load(@NotNull YApiSettings settings) {
+
+            if (loading == null || loading.isCompletedExceptionally()) {
+                YApiFacadeService facadeService = ApplicationManager.getApplication().getService(YApiFacadeServiceImpl.class);
+                loading = facadeService.getCatMenuAsync(settings.getUrl(), settings.getProjectId(), settings.getToken())
+                        .thenAccept(catMenu -> {
+                            for (YApiCat cat : catMenu) {
+                                cats.putIfAbsent(cat.getName(), CompletableFuture.completedFuture(cat));
+                            }
+                        });
+            }
+            return loading;
+        }
     }
 
 }
@@ -4,6 +4,8 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.options.ShowSettingsUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.UserDataHolderEx;
 import com.liuzhihang.doc.view.DocViewBundle;
 import com.liuzhihang.doc.view.config.ShowDocSettingsConfigurable;
 import com.liuzhihang.doc.view.config.YuQueSettings;
@@ -20,6 +22,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * 上传文档到语雀
  *
@@ -30,6 +38,8 @@ import org.jetbrains.annotations.NotNull;
 @Service
 public final class YuQueServiceImpl implements DocViewUploadService {
 
+    private static final Key<DocIndex> DOC_INDEX = Key.create("DocView.YuQueDocIndex");
+
     @Override
     public boolean checkSettings(@NotNull Project project) {
 
@@ -48,46 +58,124 @@ public final class YuQueServiceImpl implements DocViewUploadService {
         return true;
     }
 
+    @NotNull
     @Override
-    public void doUpload(@NotNull Project project, @NotNull DocView docView) {
-
-        try {
-            YuQueSettings settings = YuQueSettings.getInstance(project);
-            YuQueFacadeService facadeService = ApplicationManager.getApplication().getService(YuQueFacadeServiceImpl.class);
-            String slug;
-            if (docView.getPath().startsWith("/")) {
-                slug = docView.getPath().substring(1).replace("/", "_");
-            } else {
-                slug = docView.getPath().replace("/", "_");
-            }
+    public String target(@NotNull Project project) {
+        return YuQueSettings.getInstance(project).getApiUrl();
+    }
 
+    @NotNull
+    @Override
+    public UploadRequest prepare(@NotNull Project project, @NotNull DocView docView, @NotNull UserDataHolderEx session) {
 
-            // 获取文章是否存在
-            YuQueResponse doc = facadeService.getDoc(settings.getApiUrl(), settings.getToken(), settings.getNamespace(), slug);
-
-            YuQueResponse yuQueResponse;
-            if (doc == null) {
-                // 文档不存在
-                YuQueCreate yuQueCreate = new YuQueCreate();
-                yuQueCreate.setTitle(docView.getName());
-                yuQueCreate.setSlug(slug);
-                yuQueCreate.setBody(DocViewData.markdownText(project, docView));
-                yuQueResponse = facadeService.create(settings.getApiUrl(), settings.getToken(), settings.getNamespace(), yuQueCreate);
-
-            } else {
-                // 文档存在
-                YuQueUpdate yuQueCreate = new YuQueUpdate();
-                yuQueCreate.setTitle(docView.getName());
-                yuQueCreate.setSlug(slug);
-                yuQueCreate.setBody(DocViewData.markdownText(project, docView));
-                yuQueResponse = facadeService.update(settings.getApiUrl(), settings.getToken(), settings.getNamespace(), doc.getData().getId(), yuQueCreate);
-            }
+        YuQueSettings settings = YuQueSettings.getInstance(project);
+        String slug;
+        if (docView.getPath().startsWith("/")) {
+            slug = docView.getPath().substring(1).replace("/", "_");
+        } else {
+            slug = docView.getPath().replace("/", "_");
+        }
+        String title = docView.getName();
+        String body = DocViewData.markdownText(project, docView);
 
+        String key = settings.getNamespace() + "|" + slug;
+
+        DocIndex docIndex = session.putUserDataIfAbsent(DOC_INDEX, new DocIndex());
+
+        return UploadRequest.incremental(key, title + "\n" + body, () -> docIndex.createOrUpdate(settings, slug, () -> {
+            // 文档不存在
+            YuQueCreate yuQueCreate = new YuQueCreate();
+            yuQueCreate.setTitle(title);
+            yuQueCreate.setSlug(slug);
+            yuQueCreate.setBody(body);
+            return facadeService().createAsync(settings.getApiUrl(), settings.getToken(), settings.getNamespace(), yuQueCreate);
+        }, id -> {
+            // 文档存在
+            YuQueUpdate yuQueCreate = new YuQueUpdate();
+            yuQueCreate.setTitle(title);
+            yuQueCreate.setSlug(slug);
+            yuQueCreate.setBody(body);
+            return facadeService().updateAsync(settings.getApiUrl(), settings.getToken(), settings.getNamespace(), id, yuQueCreate);
+        }).thenAccept(yuQueResponse -> {
             String yuQueDocUrl = settings.getUrl() + "/" + settings.getNamespace() + "/" + yuQueResponse.getData().getSlug();
             DocViewNotification.uploadSuccess(project, "YuQue", yuQueDocUrl);
-        } catch (Exception e) {
-            DocViewNotification.notifyError(project, DocViewBundle.message("notify.yuque.upload.error"));
-            log.error("上传单个文档失败:{}", docView, e);
+        }));
+    }
+
+    @Override
+    public void uploadFailed(@NotNull Project project, @NotNull DocView docView, @NotNull Exception e) {
+        DocViewNotification.notifyError(project, DocViewBundle.message("notify.yuque.upload.error"));
+        log.error("上传单个文档失败:{}", docView, e);
+    }
+
+    private static YuQueFacadeService facadeService() {
+        return ApplicationManager.getApplication().getService(YuQueFacadeServiceImpl.class);
+    }
+
+    /**
+     * 一次上传中共用的知识库文档列表
+     * <p>
+     * 只在第一次使用时获取, 之后根据 slug 判断新增还是更新. 同一个 slug 只新增一次, 并发上传的其他文档等新增完成后更新, 新增失败时重新尝试新增
+     */
+    private static class DocIndex {
+
+        /**
+         * key 为 slug, value 为文档 id, 正在新增时未完成
+         */
+        private final Map<String, CompletableFuture<Long>> ids = new ConcurrentHashMap<>();
+
+        private CompletableFuture<Void> loading;
+
+        /**
+         * @param create 文档不存在时新增
+         * @param update 文档存在时根据 id 更新
+         */
+        @NotNull
+        private CompletableFuture<YuQueResponse> createOrUpdate(@NotNull YuQueSettings settings, @NotNull String slug,
+                                                                @NotNull Supplier<CompletableFuture<YuQueResponse>> create,
+                                                                @NotNull Function<Long, CompletableFuture<YuQueResponse>> update) {
+
+            return load(settings).thenCompose(v -> {
+                CompletableFuture<Long> creating = new CompletableFuture<>();
+                CompletableFuture<Long> existing = ids.putIfAbsent(slug, creating);
+                if (existing != null) {
+                    // 等待的新增失败时重新尝试, 由其中一个文档重新新增
+                    return existing.handle((id, e) -> e == null ? update.apply(id) : createOrUpdate(settings, slug, create, update))
+                            .thenCompose(future -> future);
+                }
+
+                CompletableFuture<YuQueResponse> created = create.get();
+                created.whenComplete((response, e) -> {
+                    Long id = e == null && response.getData() != null ? response.getData().getId() : null;
+                    if (id == null) {
+                        // 先移除再结束, 等待的文档重新尝试时不会拿到失败的结果
+                        ids.remove(slug, creating);
+                        creating.completeExceptionally(e != null ? e : new IllegalStateException("YuQue doc id is empty: " + slug));
+                    } else {
+                        creating.complete(id);
+                    }
+                });
+                return created;
+            });
+        }
+
+        /**
+         * 获取失败时下一个文档重新获取
+         */
+        @NotNull
+        private synchronized CompletableFuture<Void> load(@NotNull YuQueSettings settings) {
+
+            if (loading == null || loading.isCompletedExceptionally()) {
+                loading = facadeService().listDocsAsync(settings.getApiUrl(), settings.getToken(), settings.getNamespace())
+                        .thenAccept(docs -> {
+                            for (YuQueResponse.Data doc : docs) {
+                                if (doc.getSlug() != null && doc.getId() != null) {
+                                    ids.putIfAbsent(doc.getSlug(), CompletableFuture.completedFuture(doc.getId()));
+                                }
+                            }
+                        });
+            }
+            return loading;
         }
     }
 }
@@ -53,6 +53,11 @@ public class ParamDocEditorForm {
 
     private ParamTreeTableView tableView;
 
+    /**
+     * 参数表格和 Json 共用的 body
+     */
+    private Body rootBody;
+
     private JPanel rootPanel;
     private JPanel headToolbarPanel;
     private JPanel tailToolbarPanel;
@@ -197,7 +202,7 @@ public class ParamDocEditorForm {
             @Override
             public void actionPerformed(@NotNull AnActionEvent e) {
 
-                Map<String, Object> fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(psiClass, null);
+                Map<String, Object> fieldMap = ParamPsiUtils.buildExample(rootBody);
                 String format = GsonFormatUtil.gsonFormat(fieldMap);
                 StringSelection selection = new StringSelection(format);
                 Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
@@ -240,7 +245,7 @@ public class ParamDocEditorForm {
 
     private void initParamTable() {
 
-        Body rootBody = new Body();
+        rootBody = new Body();
         rootBody.setQualifiedNameForClassType(psiClass.getQualifiedName());
         boolean isProto = ProtoUtils.isProto(PsiTypesUtil.getClassType(psiClass));
         ParamPsiUtils.buildBodyList(psiClass, null, rootBody, isProto);
@@ -499,7 +499,7 @@ public class PreviewForm {
                     @Override
                     public @Nullable PopupStep<?> onChosen(String selectedValue, boolean finalChoice) {
 
-                        DocViewUploadService.getInstance(selectedValue).doUpload(psiClass.getProject(), currentDocView);
+                        DocViewUploadService.getInstance(selectedValue).upload(psiClass.getProject(), currentDocView);
 
                         return FINAL_CHOICE;
                     }
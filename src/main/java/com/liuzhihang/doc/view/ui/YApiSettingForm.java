@@ -3,6 +3,7 @@ package com.liuzhihang.doc.view.ui;
 import com.intellij.openapi.options.ConfigurationException;
 import com.intellij.openapi.project.Project;
 import com.intellij.ui.IdeBorderFactory;
+import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBTextField;
 import com.liuzhihang.doc.view.DocViewBundle;
 import com.liuzhihang.doc.view.config.YApiSettings;
@@ -18,6 +19,7 @@ public class YApiSettingForm {
     private JBTextField urlTextField;
     private JBTextField projectIdTextField;
     private JBTextField tokenTextField;
+    private JBCheckBox bulkImportCheckBox;
 
 
     private final Project project;
@@ -55,6 +57,10 @@ public class YApiSettingForm {
             return true;
         }
 
+        if (bulkImportCheckBox.isSelected() != Boolean.TRUE.equals(settings.getBulkImport())) {
+            return true;
+        }
+
         return false;
     }
 
@@ -77,6 +83,7 @@ public class YApiSettingForm {
             }
 
             settings.setToken(tokenTextField.getText());
+            settings.setBulkImport(bulkImportCheckBox.isSelected());
         } catch (NumberFormatException e) {
             throw new ConfigurationException(DocViewBundle.message("notify.yapi.project.id"));
         }
@@ -89,6 +96,7 @@ public class YApiSettingForm {
             projectIdTextField.setText(settings.getProjectId().toString());
         }
         tokenTextField.setText(settings.getToken());
+        bulkImportCheckBox.setSelected(Boolean.TRUE.equals(settings.getBulkImport()));
     }
 
 }
@@ -12,7 +12,9 @@ import com.liuzhihang.doc.view.utils.DocViewUtils;
 import java.awt.event.InputEvent;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -23,8 +25,12 @@ import java.util.stream.Collectors;
  */
 public class ClassNode extends DocViewNode {
 
-    private final List<MethodNode> methodNodes = new ArrayList<>();
-    private final PsiClass         psiClass;
+    private final PsiClass psiClass;
+
+    /**
+     * 首次展开或者获取文档时才会构建, 为 null 时表示还未构建
+     */
+    private List<MethodNode> methodNodes;
 
     protected ClassNode(SimpleNode aParent, PsiClass psiClass) {
         super(aParent);
@@ -32,22 +38,63 @@ public class ClassNode extends DocViewNode {
 
         getTemplatePresentation().setIcon(psiClass.isInterface() ? AllIcons.Nodes.Interface : AllIcons.Nodes.Class);
         getTemplatePresentation().setTooltip(DocViewUtils.getTitle(psiClass));
-        updateNode(psiClass.getProject());
     }
 
-    public void updateNode(Project project) {
+    /**
+     * 类变动后更新子节点, 未变动的方法复用原节点, 只新增和删除有变化的方法
+     *
+     * @param project 项目
+     */
+    public synchronized void updateNode(Project project) {
 
-        PsiMethod[] methods = psiClass.getMethods();
+        if (methodNodes != null) {
+            Map<PsiMethod, MethodNode> existNodeMap = new HashMap<>();
+            for (MethodNode methodNode : methodNodes) {
+                existNodeMap.put(methodNode.getPsiMethod(), methodNode);
+            }
 
-        for (PsiMethod psiMethod : methods) {
-            if (DocViewUtils.isDocViewMethod(psiMethod)) {
-                MethodNode methodNode = new MethodNode(this, psiClass, psiMethod);
-                methodNodes.add(methodNode);
+            List<MethodNode> nodes = new ArrayList<>();
+            for (PsiMethod psiMethod : psiClass.getMethods()) {
+                if (!DocViewUtils.isDocViewMethod(psiMethod)) {
+                    continue;
+                }
+                MethodNode methodNode = existNodeMap.get(psiMethod);
+                if (methodNode != null) {
+                    methodNode.updateNode(project);
+                } else {
+                    methodNode = new MethodNode(this, psiClass, psiMethod);
+                }
+                nodes.add(methodNode);
             }
+            methodNodes = nodes;
         }
+        cleanUpCache();
         update();
     }
 
+    /**
+     * 获取子节点, 未构建时构建
+     *
+     * @return MethodNode 列表
+     */
+    private synchronized List<MethodNode> methodNodes() {
+
+        if (methodNodes == null) {
+            List<MethodNode> nodes = new ArrayList<>();
+            for (PsiMethod psiMethod : psiClass.getMethods()) {
+                if (DocViewUtils.isDocViewMethod(psiMethod)) {
+                    nodes.add(new MethodNode(this, psiClass, psiMethod));
+                }
+            }
+            methodNodes = nodes;
+        }
+        return methodNodes;
+    }
+
+    public PsiClass getPsiClass() {
+        return psiClass;
+    }
+
     @Override
     public String docPath(Project project) {
 
@@ -66,7 +113,7 @@ public class ClassNode extends DocViewNode {
 
     @Override
     protected SimpleNode[] buildChildren() {
-        return methodNodes.toArray(new SimpleNode[0]);
+        return methodNodes().toArray(new SimpleNode[0]);
     }
 
     @Override
@@ -76,7 +123,12 @@ public class ClassNode extends DocViewNode {
 
     @Override
     public List<DocView> docViewList() {
-        return methodNodes.stream().map(MethodNode::docViewList).flatMap(Collection::stream).collect(Collectors.toList());
+        return methodNodes().stream().map(MethodNode::docViewList).flatMap(Collection::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MethodNode> methodNodeList() {
+        return new ArrayList<>(methodNodes());
     }
 
     @Override
@@ -28,6 +28,13 @@ public abstract class DocViewNode extends CachingSimpleNode {
 
     public abstract List<DocView> docViewList();
 
+    /**
+     * 节点下所有的方法节点, 需要在读操作中调用
+     *
+     * @return 方法节点
+     */
+    public abstract List<MethodNode> methodNodeList();
+
     public abstract void updateNode(Project project);
 
     /**
@@ -6,14 +6,20 @@ import com.intellij.openapi.actionSystem.ActionPlaces;
 import com.intellij.openapi.actionSystem.ActionToolbar;
 import com.intellij.openapi.actionSystem.DataProvider;
 import com.intellij.openapi.actionSystem.DefaultActionGroup;
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.psi.PsiManager;
 import com.intellij.ui.PopupHandler;
 import com.intellij.ui.ScrollPaneFactory;
 import com.intellij.ui.TreeSpeedSearch;
@@ -21,14 +27,22 @@ import com.intellij.ui.tree.AsyncTreeModel;
 import com.intellij.ui.tree.StructureTreeModel;
 import com.intellij.ui.treeStructure.SimpleTree;
 import com.intellij.ui.treeStructure.SimpleTreeStructure;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.liuzhihang.doc.view.data.DocViewDataKeys;
+import com.liuzhihang.doc.view.listener.DocViewServiceListener;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.concurrency.CancellablePromise;
 
 import javax.swing.*;
 import javax.swing.tree.TreeSelectionModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author liuzhihang
@@ -37,6 +51,12 @@ import javax.swing.tree.TreeSelectionModel;
 @Slf4j
 public class DocViewWindowPanel extends SimpleToolWindowPanel implements DataProvider {
 
+    /**
+     * 目录扫描线程池, 并发数与 CPU 核数一致
+     */
+    private static final ExecutorService SCAN_EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Doc View Catalog Scan", Runtime.getRuntime().availableProcessors());
+
     private final RootNode rootNode = new RootNode();
 
     private final Project project;
@@ -44,6 +64,16 @@ public class DocViewWindowPanel extends SimpleToolWindowPanel implements DataPro
     private final ToolWindow toolWindow;
     private final StructureTreeModel<AbstractTreeStructure> treeModel;
 
+    /**
+     * 正在执行的目录扫描
+     */
+    private volatile ProgressIndicator runningIndicator;
+
+    /**
+     * 切换正在执行的扫描和发布扫描结果互斥, 旧的扫描不会覆盖新的扫描结果
+     */
+    private final Object scanLock = new Object();
+
     public DocViewWindowPanel(@NotNull Project project, @NotNull ToolWindow toolWindow) {
         super(Boolean.TRUE, Boolean.TRUE);
         this.project = project;
@@ -69,6 +99,10 @@ public class DocViewWindowPanel extends SimpleToolWindowPanel implements DataPro
         setContent(ScrollPaneFactory.createScrollPane(catalogTree));
         new TreeSpeedSearch(catalogTree);
         updateCatalogTree();
+
+        // 文件变动后只更新变动的节点
+        PsiManager.getInstance(project).addPsiTreeChangeListener(
+                new DocViewServiceListener(toolWindow.getDisposable(), this::updateCatalogTree), toolWindow.getDisposable());
     }
 
     /**
@@ -96,19 +130,91 @@ public class DocViewWindowPanel extends SimpleToolWindowPanel implements DataPro
         });
     }
 
+    /**
+     * 按 module 分段扫描, 每个 module 在一个可中断的读操作中执行
+     * <p>
+     * 有写操作(比如输入)时读操作会被中断, 写操作结束后重新执行当前 module, 不会阻塞编辑器.
+     * 各个 module 之间互不依赖, 在有界线程池中并行扫描, 结果按 module 顺序合并
+     */
     private void doUpdateCatalogTree() {
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View Searching") {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View Searching", true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
-                ApplicationManager.getApplication().runReadAction(() -> {
-                    rootNode.updateNode(project);
-                    treeModel.invalidateAsync();
-                });
+
+                // 新的扫描开始时取消上一次还未结束的扫描
+                ProgressIndicator previous;
+                synchronized (scanLock) {
+                    previous = runningIndicator;
+                    runningIndicator = indicator;
+                }
+                if (previous != null) {
+                    previous.cancel();
+                }
+
+                Module[] modules = ReadAction.compute(() -> ModuleManager.getInstance(project).getModules());
+
+                indicator.setIndeterminate(false);
+                AtomicInteger finished = new AtomicInteger();
+
+                List<CancellablePromise<ModuleNode>> promises = new ArrayList<>(modules.length);
+                for (Module module : modules) {
+                    CancellablePromise<ModuleNode> promise = ReadAction.nonBlocking(() -> rootNode.createModuleNode(module))
+                            .inSmartMode(project)
+                            .expireWith(toolWindow.getDisposable())
+                            .wrapProgress(indicator)
+                            .submit(SCAN_EXECUTOR);
+                    promise.onProcessed(moduleNode -> {
+                        indicator.setText2(module.getName());
+                        indicator.setFraction((double) finished.incrementAndGet() / modules.length);
+                    });
+                    promises.add(promise);
+                }
+
+                // 按 module 顺序合并, 保证目录顺序稳定
+                List<ModuleNode> moduleNodes = new ArrayList<>();
+                try {
+                    for (CancellablePromise<ModuleNode> promise : promises) {
+                        ModuleNode moduleNode = ProgressIndicatorUtils.awaitWithCheckCanceled(promise, indicator);
+                        if (moduleNode != null) {
+                            moduleNodes.add(moduleNode);
+                        }
+                    }
+                } catch (ProcessCanceledException e) {
+                    promises.forEach(promise -> promise.cancel());
+                    throw e;
+                }
+
+                indicator.checkCanceled();
+                synchronized (scanLock) {
+                    // 已经开始了新的扫描, 结果以新的扫描为准
+                    if (runningIndicator != indicator) {
+                        return;
+                    }
+                    rootNode.setModuleNodes(moduleNodes);
+                }
+                treeModel.invalidateAsync();
             }
         });
     }
 
 
+    /**
+     * 局部更新目录树, 只处理变动的文件
+     *
+     * @param files 变动的文件
+     */
+    public void updateCatalogTree(Set<VirtualFile> files) {
+
+        DumbService.getInstance(project).runReadActionInSmartMode(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            for (DocViewNode node : rootNode.updateFiles(project, files)) {
+                treeModel.invalidateAsync(node, true);
+            }
+        });
+    }
+
     @Override
     public @Nullable Object getData(@NotNull @NonNls String dataId) {
 
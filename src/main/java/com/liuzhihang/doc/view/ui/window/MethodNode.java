@@ -47,14 +47,34 @@ public class MethodNode extends DocViewNode {
 
     @Override
     public List<DocView> docViewList() {
-        DocViewService service = DocViewService.getInstance(psiClass.getProject(), psiClass);
-        return Collections.singletonList(service.buildClassMethodDoc(psiClass, psiMethod));
+        return Collections.singletonList(docView());
 
     }
 
     @Override
-    public void updateNode(Project project) {
+    public List<MethodNode> methodNodeList() {
+        return Collections.singletonList(this);
+    }
 
+    /**
+     * 当前方法的文档, 需要在读操作中调用
+     *
+     * @return 文档
+     */
+    public DocView docView() {
+        DocViewService service = DocViewService.getInstance(psiClass.getProject(), psiClass);
+        return service.getClassMethodDoc(psiClass, psiMethod);
+    }
+
+    /**
+     * 方法所在类变动后复用当前节点, 只刷新展示内容
+     *
+     * @param project 项目
+     */
+    @Override
+    public void updateNode(Project project) {
+        getTemplatePresentation().setTooltip(DocViewUtils.getMethodDesc(psiMethod));
+        update();
     }
 
     @Override
@@ -4,20 +4,20 @@ import com.intellij.icons.AllIcons;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.NlsSafe;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.searches.AllClassesSearch;
 import com.intellij.ui.treeStructure.SimpleNode;
 import com.liuzhihang.doc.view.config.Settings;
 import com.liuzhihang.doc.view.dto.DocView;
+import com.liuzhihang.doc.view.index.DocViewEndpointIndex;
 import com.liuzhihang.doc.view.utils.DubboPsiUtils;
 import com.liuzhihang.doc.view.utils.FeignPsiUtil;
 import com.liuzhihang.doc.view.utils.SpringPsiUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -26,8 +26,12 @@ import java.util.stream.Collectors;
  */
 public class ModuleNode extends DocViewNode {
 
-    private final List<ClassNode> classNodes = new ArrayList<>();
-    private final Module          module;
+    private final Module module;
+
+    /**
+     * 首次展开或者获取文档时才会构建, 为 null 时表示还未构建
+     */
+    private List<ClassNode> classNodes;
 
     protected ModuleNode(SimpleNode aParent, Module module) {
         super(aParent);
@@ -35,34 +39,142 @@ public class ModuleNode extends DocViewNode {
 
         getTemplatePresentation().setIcon(AllIcons.Nodes.Module);
         getTemplatePresentation().setPresentableText(getName());
-        updateNode(module.getProject());
     }
 
-    public void updateNode(Project project) {
+    /**
+     * 重置子节点, 下次展开时重新构建
+     *
+     * @param project 项目
+     */
+    public synchronized void updateNode(Project project) {
         cleanUpCache();
-        classNodes.clear();
+        classNodes = null;
+        update();
+    }
+
+    /**
+     * 当前 module 是否有文档
+     * <p>
+     * 还未构建子节点时只查询接口索引, 不会构建 ClassNode
+     *
+     * @return true 有文档
+     */
+    public synchronized boolean hasDocView() {
+
+        if (classNodes != null) {
+            return !classNodes.isEmpty();
+        }
+
+        Project project = module.getProject();
+        GlobalSearchScope scope = GlobalSearchScope.moduleScope(module);
+
+        if (Settings.getInstance(project).getIncludeNormalInterface()
+                && !AllClassesSearch.search(scope, project).forEach(psiClass -> !psiClass.isInterface())) {
+            return true;
+        }
+
+        return DocViewEndpointIndex.hasEndpoints(scope);
+    }
+
+    /**
+     * 获取子节点, 未构建时构建
+     *
+     * @return ClassNode 列表
+     */
+    private synchronized List<ClassNode> classNodes() {
+
+        if (classNodes == null) {
+            List<ClassNode> nodes = new ArrayList<>();
+            for (PsiClass psiClass : findDocViewClasses(module.getProject(), GlobalSearchScope.moduleScope(module))) {
+                nodes.add(new ClassNode(this, psiClass));
+            }
+            classNodes = nodes;
+        }
+        return classNodes;
+    }
+
+    /**
+     * 只更新变动文件中的类, 其他 ClassNode 保持不变
+     *
+     * @param project 项目
+     * @param files   变动的文件
+     * @return 当前节点是否有变化
+     */
+    public synchronized boolean updateFiles(Project project, Collection<VirtualFile> files) {
+
+        if (classNodes == null) {
+            // 还未展开过, 下次展开时自然是最新的, 只需要告知是否涉及当前 module
+            GlobalSearchScope moduleScope = GlobalSearchScope.moduleScope(module);
+            return files.stream().anyMatch(file -> file.isValid() && moduleScope.contains(file));
+        }
+
+        // 已经失效或者在变动文件中的类
+        Map<PsiClass, ClassNode> dirtyNodeMap = new HashMap<>();
+        boolean changed = classNodes.removeIf(classNode -> !classNode.getPsiClass().isValid());
+        for (ClassNode classNode : classNodes) {
+            PsiFile psiFile = classNode.getPsiClass().getContainingFile();
+            if (psiFile != null && files.contains(psiFile.getVirtualFile())) {
+                dirtyNodeMap.put(classNode.getPsiClass(), classNode);
+            }
+        }
+
+        GlobalSearchScope moduleScope = GlobalSearchScope.moduleScope(module);
+        List<VirtualFile> moduleFiles = files.stream().filter(file -> file.isValid() && moduleScope.contains(file)).collect(Collectors.toList());
+
+        if (!moduleFiles.isEmpty()) {
+            GlobalSearchScope scope = moduleScope.intersectWith(GlobalSearchScope.filesScope(project, moduleFiles));
+
+            for (PsiClass psiClass : findDocViewClasses(project, scope)) {
+                ClassNode classNode = dirtyNodeMap.remove(psiClass);
+                if (classNode != null) {
+                    // 复用原节点, 保持展开状态
+                    classNode.updateNode(project);
+                } else {
+                    classNodes.add(new ClassNode(this, psiClass));
+                }
+                changed = true;
+            }
+        }
+
+        // 变动后不再满足条件的类
+        if (!dirtyNodeMap.isEmpty()) {
+            classNodes.removeAll(dirtyNodeMap.values());
+            changed = true;
+        }
+
+        if (changed) {
+            cleanUpCache();
+            update();
+        }
+        return changed;
+    }
+
+    /**
+     * 从范围中获取所有文档类
+     *
+     * @param project 项目
+     * @param scope   范围
+     * @return 文档类
+     */
+    private List<PsiClass> findDocViewClasses(Project project, GlobalSearchScope scope) {
 
         List<PsiClass> psiClasses = new LinkedList<>();
 
         if (Settings.getInstance(project).getIncludeNormalInterface()) {
             // 包含普通接口则扫描所有接口
-            List<PsiClass> interfaceList = AllClassesSearch.search(GlobalSearchScope.moduleScope(module), project).findAll()
+            List<PsiClass> interfaceList = AllClassesSearch.search(scope, project).findAll()
                     .stream()
                     .filter(PsiClass::isInterface)
                     .collect(Collectors.toList());
             psiClasses.addAll(interfaceList);
         } else {
-            psiClasses.addAll(DubboPsiUtils.findDocViewFromModule(module));
-            psiClasses.addAll(FeignPsiUtil.findDocViewFromModule(module));
+            psiClasses.addAll(DubboPsiUtils.findDocViewFromScope(project, scope));
+            psiClasses.addAll(FeignPsiUtil.findDocViewFromScope(project, scope));
         }
 
-        psiClasses.addAll(SpringPsiUtils.findDocViewFromModule(module));
+        psiClasses.addAll(SpringPsiUtils.findDocViewFromScope(project, scope));
 
-        for (PsiClass psiClass : psiClasses) {
-            ClassNode classNode = new ClassNode(this, psiClass);
-            classNodes.add(classNode);
-        }
-        update();
+        return psiClasses;
     }
 
     @Override
@@ -83,7 +195,7 @@ public class ModuleNode extends DocViewNode {
 
     @Override
     protected SimpleNode[] buildChildren() {
-        return classNodes.toArray(new SimpleNode[0]);
+        return classNodes().toArray(new SimpleNode[0]);
     }
 
     @Override
@@ -93,6 +205,15 @@ public class ModuleNode extends DocViewNode {
 
     @Override
     public List<DocView> docViewList() {
-        return classNodes.stream().map(ClassNode::docViewList).flatMap(Collection::stream).collect(Collectors.toList());
+        return classNodes().stream().map(ClassNode::docViewList).flatMap(Collection::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MethodNode> methodNodeList() {
+        return classNodes().stream().map(ClassNode::methodNodeList).flatMap(Collection::stream).collect(Collectors.toList());
+    }
+
+    public Module getModule() {
+        return module;
     }
 }
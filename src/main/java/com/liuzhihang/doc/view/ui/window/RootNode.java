@@ -3,13 +3,15 @@ package com.liuzhihang.doc.view.ui.window;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.ui.treeStructure.SimpleNode;
 import com.liuzhihang.doc.view.dto.DocView;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -30,17 +32,102 @@ public class RootNode extends DocViewNode {
 
     @Override
     public void updateNode(Project project) {
-        cleanUpCache();
-        moduleNodes.clear();
+
+        List<ModuleNode> nodes = new ArrayList<>();
 
         Module[] modules = ModuleManager.getInstance(project).getModules();
         for (Module module : modules) {
+            ModuleNode moduleNode = createModuleNode(module);
+            if (moduleNode != null) {
+                nodes.add(moduleNode);
+            }
+        }
+        setModuleNodes(nodes);
+    }
+
+    /**
+     * 创建 module 节点, 不会修改当前目录树, 可以在可中断的读操作中反复执行
+     *
+     * @param module module
+     * @return 没有文档时返回 null
+     */
+    @Nullable
+    public ModuleNode createModuleNode(@NotNull Module module) {
+
+        if (module.isDisposed()) {
+            return null;
+        }
+        ModuleNode moduleNode = new ModuleNode(this, module);
+        return moduleNode.hasDocView() ? moduleNode : null;
+    }
+
+    /**
+     * 使用扫描结果替换所有 module 节点
+     *
+     * @param nodes module 节点
+     */
+    public synchronized void setModuleNodes(@NotNull List<ModuleNode> nodes) {
+        cleanUpCache();
+        moduleNodes.clear();
+        moduleNodes.addAll(nodes);
+        update();
+    }
+
+    /**
+     * 根据变动的文件局部更新目录树
+     *
+     * @param project 项目
+     * @param files   变动的文件
+     * @return 需要刷新的节点
+     */
+    public synchronized List<DocViewNode> updateFiles(Project project, Collection<VirtualFile> files) {
+
+        List<DocViewNode> changedNodes = new ArrayList<>();
+        Set<Module> existModules = new HashSet<>();
+
+        Iterator<ModuleNode> iterator = moduleNodes.iterator();
+        while (iterator.hasNext()) {
+            ModuleNode moduleNode = iterator.next();
+            if (moduleNode.getModule().isDisposed()) {
+                iterator.remove();
+                changedNodes.add(this);
+                continue;
+            }
+            existModules.add(moduleNode.getModule());
+            if (moduleNode.updateFiles(project, files)) {
+                if (!moduleNode.hasDocView()) {
+                    iterator.remove();
+                    changedNodes.add(this);
+                } else {
+                    changedNodes.add(moduleNode);
+                }
+            }
+        }
+
+        // 变动文件所在的 module 之前没有文档, 需要新增节点
+        for (VirtualFile file : files) {
+            if (!file.isValid()) {
+                continue;
+            }
+            Module module = ModuleUtilCore.findModuleForFile(file, project);
+            if (module == null || !existModules.add(module)) {
+                continue;
+            }
             ModuleNode moduleNode = new ModuleNode(this, module);
-            if (moduleNode.getChildCount() > 0) {
+            if (moduleNode.hasDocView()) {
                 moduleNodes.add(moduleNode);
+                changedNodes.add(this);
             }
         }
-        update();
+
+        if (changedNodes.contains(this)) {
+            // 与全量刷新保持相同的顺序
+            List<Module> modules = Arrays.asList(ModuleManager.getInstance(project).getModules());
+            moduleNodes.sort(Comparator.comparingInt(moduleNode -> modules.indexOf(moduleNode.getModule())));
+            cleanUpCache();
+            update();
+        }
+        return changedNodes;
     }
 
     @Override
@@ -67,4 +154,10 @@ public class RootNode extends DocViewNode {
 
         return moduleNodes.stream().map(ModuleNode::docViewList).flatMap(Collection::stream).collect(Collectors.toList());
     }
+
+    @Override
+    public List<MethodNode> methodNodeList() {
+
+        return moduleNodes.stream().map(ModuleNode::methodNodeList).flatMap(Collection::stream).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,119 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.intellij.util.ThrowableConvertor;
+import com.liuzhihang.doc.view.integration.HttpClientService;
+import org.apache.http.Header;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URIBuilder;
+
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步请求, 和 {@link HttpUtils} 对应, 返回的 CompletableFuture 在响应后完成, 不占用等待的线程
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public class AsyncHttpUtils {
+
+    private AsyncHttpUtils() {
+    }
+
+    /**
+     * GET 请求
+     *
+     * @param url
+     * @param parameters
+     * @param headers
+     * @return 响应内容
+     */
+    public static CompletableFuture<String> get(String url, List<NameValuePair> parameters, List<Header> headers) {
+
+        try {
+            URIBuilder uriBuilder = new URIBuilder(url);
+            if (parameters != null && !parameters.isEmpty()) {
+                uriBuilder.setParameters(parameters);
+            }
+            return send(newBuilder(headers).uri(uriBuilder.build()).GET());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new Exception("Url error!", e));
+        }
+    }
+
+    public static CompletableFuture<String> post(String url, String jsonStr, List<Header> headers) {
+
+        return json(url, "POST", jsonStr, headers);
+    }
+
+    /**
+     * put 请求
+     *
+     * @param url
+     * @param jsonStr
+     * @param headers
+     * @return 响应内容
+     */
+    public static CompletableFuture<String> put(String url, String jsonStr, List<Header> headers) {
+
+        return json(url, "PUT", jsonStr, headers);
+    }
+
+    /**
+     * 解析响应内容, 解析失败时 future 以该异常结束
+     *
+     * @param future 请求
+     * @param parser 解析
+     * @return 解析结果
+     */
+    public static <T> CompletableFuture<T> parse(CompletableFuture<String> future, ThrowableConvertor<String, T, Exception> parser) {
+
+        return future.thenCompose(resp -> {
+            try {
+                return CompletableFuture.completedFuture(parser.convert(resp));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    private static CompletableFuture<String> json(String url, String method, String jsonStr, List<Header> headers) {
+
+        try {
+            HttpRequest.Builder builder = newBuilder(headers)
+                    .uri(new URIBuilder(url).build())
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .method(method, HttpRequest.BodyPublishers.ofString(jsonStr, StandardCharsets.UTF_8));
+            return send(builder);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new Exception("Url error!", e));
+        }
+    }
+
+    private static HttpRequest.Builder newBuilder(List<Header> headers) {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(HttpClientService.getInstance().getReadTimeout());
+        if (headers != null && !headers.isEmpty()) {
+            headers.forEach(header -> builder.header(header.getName(), header.getValue()));
+        }
+        return builder;
+    }
+
+    /**
+     * 状态码大于等于 400 时以响应内容作为异常信息
+     */
+    private static CompletableFuture<String> send(HttpRequest.Builder builder) {
+
+        return HttpClientService.getInstance().getAsyncClient()
+                .sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenCompose(response -> response.statusCode() >= 400
+                        ? CompletableFuture.failedFuture(new Exception(response.body()))
+                        : CompletableFuture.completedFuture(response.body()));
+    }
+
+}
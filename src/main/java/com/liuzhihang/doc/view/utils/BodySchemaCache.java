@@ -0,0 +1,246 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.liuzhihang.doc.view.dto.Body;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类结构缓存
+ * <p>
+ * 同一个类(加上泛型)展开后的子节点只构建一次, 比如 Result&lt;T&gt; 以及多个接口共用的 DTO, 之后直接复制缓存的子节点.
+ * <p>
+ * 展开时的递归判断依赖根节点到当前节点的链表, 所以缓存中记录了展开过程中判断过的类型和父子对,
+ * 只有和当前节点的祖先不冲突时才使用缓存, 保证结果和逐个字段展开一致.
+ * <p>
+ * Java 文件变动或者设置变动时失效
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public final class BodySchemaCache {
+
+    private static final Key<CachedValue<Map<String, Schema>>> BODY_SCHEMAS = Key.create("DocView.BodySchemas");
+
+    /**
+     * 设置变动后所有缓存失效
+     */
+    private static final SimpleModificationTracker SETTINGS_TRACKER = new SimpleModificationTracker();
+
+    /**
+     * 当前线程正在构建的缓存, 防止循环引用时重复构建
+     */
+    private static final ThreadLocal<Set<String>> BUILDING = ThreadLocal.withInitial(HashSet::new);
+
+    private BodySchemaCache() {
+    }
+
+    /**
+     * 将缓存的子节点复制到 parentBody 下
+     *
+     * @param childClass      需要展开的类
+     * @param genericsMap     泛型
+     * @param parentBody      父节点
+     * @param parentChildPair 当前递归路径上的父子对
+     * @param isProto         childClass 是 proto
+     * @return false 不能使用缓存, 需要逐个字段展开
+     */
+    static boolean graft(@NotNull PsiClass childClass, Map<String, PsiType> genericsMap, @NotNull Body parentBody,
+                         @NotNull Map<String, Boolean> parentChildPair, boolean isProto) {
+
+        String qualifiedName = childClass.getQualifiedName();
+        if (StringUtils.isBlank(qualifiedName) || !childClass.isPhysical()) {
+            return false;
+        }
+
+        String key = qualifiedName + "|" + isProto + "|" + genericsKey(genericsMap) + "|" + parentBody.getQualifiedNameForClassType();
+
+        Map<String, Schema> schemas = getSchemas(childClass.getProject());
+        Schema schema = schemas.get(key);
+
+        if (schema == null) {
+            Set<String> building = BUILDING.get();
+            if (!building.add(key)) {
+                return false;
+            }
+            try {
+                schema = build(childClass, genericsMap, parentBody.getQualifiedNameForClassType(), isProto);
+            } finally {
+                building.remove(key);
+            }
+            schemas.put(key, schema);
+        }
+
+        if (!schema.isCompatible(parentBody, parentChildPair)) {
+            return false;
+        }
+
+        // 外层正在构建缓存时, 需要记录下嵌套缓存中的判断
+        if (parentChildPair instanceof Recorder recorder) {
+            recorder.pairs.addAll(schema.pairs);
+            recorder.typeNames.addAll(schema.typeNames);
+        }
+
+        for (Body child : schema.root.getChildList()) {
+            parentBody.getChildList().add(copy(child, parentBody));
+        }
+        return true;
+    }
+
+    /**
+     * 记录展开过程中做过递归判断的类型
+     *
+     * @param parentChildPair 当前递归路径上的父子对
+     * @param qualifiedName   判断的类型
+     */
+    static void recordTypeName(@NotNull Map<String, Boolean> parentChildPair, String qualifiedName) {
+
+        if (parentChildPair instanceof Recorder recorder && StringUtils.isNotBlank(qualifiedName)) {
+            recorder.typeNames.add(qualifiedName);
+        }
+    }
+
+    /**
+     * 设置变动, 清除所有缓存
+     */
+    public static void clear() {
+        SETTINGS_TRACKER.incModificationCount();
+    }
+
+    @NotNull
+    private static Map<String, Schema> getSchemas(@NotNull Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, BODY_SCHEMAS, () ->
+                CachedValueProvider.Result.create(new ConcurrentHashMap<>(),
+                        PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+                        SETTINGS_TRACKER), false);
+    }
+
+    /**
+     * 脱离当前位置单独展开, 根节点只保留父节点的类型
+     */
+    @NotNull
+    private static Schema build(@NotNull PsiClass childClass, Map<String, PsiType> genericsMap,
+                                String parentQualifiedName, boolean isProto) {
+
+        Body root = new Body();
+        root.setQualifiedNameForClassType(parentQualifiedName);
+
+        Recorder recorder = new Recorder();
+        ParamPsiUtils.expandChildBody(childClass, genericsMap, root, recorder, isProto);
+
+        return new Schema(root, recorder.pairs, recorder.typeNames);
+    }
+
+    @NotNull
+    private static String genericsKey(Map<String, PsiType> genericsMap) {
+
+        if (genericsMap == null || genericsMap.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (Map.Entry<String, PsiType> entry : new TreeMap<>(genericsMap).entrySet()) {
+            joiner.add(entry.getKey() + "=" + (entry.getValue() == null ? "" : entry.getValue().getCanonicalText()));
+        }
+        return joiner.toString();
+    }
+
+    @NotNull
+    private static Body copy(@NotNull Body source, @NotNull Body parent) {
+
+        Body body = new Body();
+        body.setPsiElement(source.getPsiElement());
+        body.setRequired(source.getRequired());
+        body.setName(source.getName());
+        body.setExample(source.getExample());
+        body.setExampleValue(source.getExampleValue());
+        body.setDesc(source.getDesc());
+        body.setType(source.getType());
+        body.setSince(source.getSince());
+        body.setVersion(source.getVersion());
+        body.setQualifiedNameForClassType(source.getQualifiedNameForClassType());
+        body.setCollection(source.isCollection());
+        body.setMap(source.isMap());
+        body.setParent(parent);
+
+        for (Body child : source.getChildList()) {
+            body.getChildList().add(copy(child, body));
+        }
+        return body;
+    }
+
+    /**
+     * 缓存的类结构
+     */
+    private static class Schema {
+
+        /**
+         * 根节点, 子节点为展开后的结果
+         */
+        private final Body root;
+
+        /**
+         * 展开过程中使用过的父子对
+         */
+        private final Set<String> pairs;
+
+        /**
+         * 展开过程中做过递归判断的类型
+         */
+        private final Set<String> typeNames;
+
+        private Schema(Body root, Set<String> pairs, Set<String> typeNames) {
+            this.root = root;
+            this.pairs = pairs;
+            this.typeNames = typeNames;
+        }
+
+        /**
+         * 当前位置的祖先节点以及递归路径不会影响展开结果时才能使用
+         */
+        private boolean isCompatible(@NotNull Body parentBody, @NotNull Map<String, Boolean> parentChildPair) {
+
+            for (String pair : parentChildPair.keySet()) {
+                if (pairs.contains(pair)) {
+                    return false;
+                }
+            }
+
+            Body temp = parentBody.getParent();
+            while (temp != null) {
+                if (typeNames.contains(temp.getQualifiedNameForClassType())) {
+                    return false;
+                }
+                temp = temp.getParent();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 单独展开时使用的父子对, 同时记录展开过程中的判断
+     */
+    private static class Recorder extends HashMap<String, Boolean> {
+
+        private final Set<String> pairs = new HashSet<>();
+        private final Set<String> typeNames = new HashSet<>();
+
+        @Override
+        public Boolean put(String key, Boolean value) {
+            pairs.add(key);
+            return super.put(key, value);
+        }
+    }
+
+}
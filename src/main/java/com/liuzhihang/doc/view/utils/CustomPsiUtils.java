@@ -39,9 +39,8 @@ public class CustomPsiUtils {
         int offset = editor.getCaretModel().getOffset();
         PsiElement element = file.findElementAt(offset);
         if ("protobuf".equalsIgnoreCase(file.getLanguage().getDisplayName())) {
-            // Parse the .proto file and generate Java code (this part is simplified)
-            PsiClass psiClass = ProtoToPsiClassConverter.convertProtoToPsiClass(file, editor.getProject());
-            return psiClass;
+            // 根据 proto 文件的解析结果生成光标所在 message 对应的类
+            return ProtoToPsiClassConverter.convertProtoToPsiClass(file, file.getProject(), offset);
         }
         if (element != null) {
             // 当前类
@@ -1,22 +1,24 @@
 package com.liuzhihang.doc.view.utils;
 
 import com.intellij.codeInsight.AnnotationUtil;
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.lang.xml.XMLLanguage;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
 import com.intellij.psi.javadoc.PsiDocTag;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.searches.ClassInheritorsSearch;
-import com.intellij.psi.util.InheritanceUtil;
-import com.intellij.psi.util.PsiTypesUtil;
-import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.*;
 import com.intellij.util.xml.DomFileElement;
 import com.intellij.util.xml.DomService;
 import com.liuzhihang.doc.view.constant.DubboConstant;
 import com.liuzhihang.doc.view.constant.FieldTypeConstant;
 import com.liuzhihang.doc.view.dom.BeansDomElement;
+import com.liuzhihang.doc.view.dom.DubboServiceDomElement;
 import com.liuzhihang.doc.view.dto.Body;
+import com.liuzhihang.doc.view.index.DocViewEndpointIndex;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -29,6 +31,8 @@ import java.util.stream.Collectors;
  */
 public class DubboPsiUtils {
 
+    private static final Key<CachedValue<Set<String>>> DUBBO_INTERFACES = Key.create("DocView.DubboInterfaces");
+
     /**
      * 检查是否是 dubbo 接口
      * <p>
@@ -48,25 +52,72 @@ public class DubboPsiUtils {
         if (AnnotationUtil.isAnnotated(psiClass, DubboConstant.SERVICE_ANNOTATIONS, 0)) {
             return true;
         }
-        // 实现类上要有注解
-        if (ClassInheritorsSearch.search(psiClass).findAll()
-                .stream()
-                .anyMatch(psiClass1 -> AnnotationUtil.isAnnotated(psiClass1, DubboConstant.SERVICE_ANNOTATIONS, 0))) {
-            return true;
-        }
 
-        Project project = psiClass.getProject();
+        // 实现类上有注解 或者 xml 中有配置
+        String qualifiedName = psiClass.getQualifiedName();
+
+        return qualifiedName != null && getDubboInterfaces(psiClass.getProject()).contains(qualifiedName);
+    }
+
+    /**
+     * 项目中所有 Dubbo 接口的全类名
+     * <p>
+     * 整个项目只计算一次, Java 或者 xml 文件变动后失效
+     *
+     * @param project 项目
+     * @return Dubbo 接口全类名
+     */
+    @NotNull
+    public static Set<String> getDubboInterfaces(@NotNull Project project) {
+
+        return CachedValuesManager.getManager(project).getCachedValue(project, DUBBO_INTERFACES, () -> {
+            PsiModificationTracker tracker = PsiModificationTracker.getInstance(project);
+            return CachedValueProvider.Result.create(computeDubboInterfaces(project),
+                    tracker.forLanguage(JavaLanguage.INSTANCE), tracker.forLanguage(XMLLanguage.INSTANCE));
+        }, false);
+    }
+
+    @NotNull
+    private static Set<String> computeDubboInterfaces(@NotNull Project project) {
+
+        Set<String> interfaces = new HashSet<>();
+
+        // 实现类(或者接口本身)上有 @DubboService/@Service 注解
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        Collection<PsiAnnotation> psiAnnotations = new ArrayList<>(JavaAnnotationIndex.getInstance().get("Service", project, projectScope));
+        psiAnnotations.addAll(JavaAnnotationIndex.getInstance().get("DubboService", project, projectScope));
+
+        for (PsiAnnotation psiAnnotation : psiAnnotations) {
+
+            if (DubboConstant.SERVICE_ANNOTATIONS.stream().noneMatch(psiAnnotation::hasQualifiedName)) {
+                continue;
+            }
+            if (!(psiAnnotation.getParent() instanceof PsiModifierList modifierList)
+                    || !(modifierList.getParent() instanceof PsiClass annotatedClass)) {
+                continue;
+            }
 
-        // xml 中的所有配置
+            InheritanceUtil.processSupers(annotatedClass, true, superClass -> {
+                if (superClass.isInterface() && superClass.getQualifiedName() != null) {
+                    interfaces.add(superClass.getQualifiedName());
+                }
+                return true;
+            });
+        }
+
+        // xml 中的 <dubbo:service interface="..."/>
         List<DomFileElement<BeansDomElement>> fileElements = DomService.getInstance().getFileElements(BeansDomElement.class, project, GlobalSearchScope.allScope(project));
 
-        // 只需要判断namespace
-        String qualifiedName = psiClass.getQualifiedName();
+        for (DomFileElement<BeansDomElement> fileElement : fileElements) {
+            for (DubboServiceDomElement dubboServiceDomElement : fileElement.getRootElement().getDubboServiceDomElements()) {
+                String interfaceName = dubboServiceDomElement.getInterface().getRawText();
+                if (StringUtils.isNotBlank(interfaceName)) {
+                    interfaces.add(interfaceName.trim());
+                }
+            }
+        }
 
-        return fileElements.stream().anyMatch(elements ->
-                elements.getRootElement().getDubboServiceDomElements()
-                        .stream()
-                        .anyMatch(dubboServiceDomElement -> Objects.requireNonNull(dubboServiceDomElement.getInterface().getRawText()).equals(qualifiedName)));
+        return interfaces;
     }
 
     /**
@@ -91,18 +142,16 @@ public class DubboPsiUtils {
 
 
     public static List<PsiClass> findDocViewFromModule(Module module) {
+        return findDocViewFromScope(module.getProject(), GlobalSearchScope.moduleScope(module));
+    }
 
-        Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex.getInstance().get("Service", module.getProject(), GlobalSearchScope.moduleScope(module));
-        psiAnnotations.addAll(JavaAnnotationIndex.getInstance().get("DubboService", module.getProject(), GlobalSearchScope.moduleScope(module)));
+    public static List<PsiClass> findDocViewFromScope(Project project, GlobalSearchScope scope) {
 
         List<PsiClass> psiClasses = new LinkedList<>();
 
-        for (PsiAnnotation psiAnnotation : psiAnnotations) {
-            PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-            PsiElement psiElement = psiModifierList.getParent();
-
-            if (psiElement instanceof PsiClass && isDubboClass((PsiClass) psiElement)) {
-                psiClasses.add((PsiClass) psiElement);
+        for (PsiClass psiClass : DocViewEndpointIndex.findClasses(project, scope, DocViewEndpointIndex.DUBBO)) {
+            if (isDubboClass(psiClass)) {
+                psiClasses.add(psiClass);
             }
         }
         return psiClasses;
@@ -151,7 +200,7 @@ public class DubboPsiUtils {
 
             // 基本类型
             if (type instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
-
+                body.setExampleValue(ParamPsiUtils.simpleExampleValue(parameter, type));
             } else if (InheritanceUtil.isInheritor(type, CommonClassNames.JAVA_UTIL_COLLECTION)) {
                 PsiType iterableType = PsiUtil.extractIterableTypeParameter(type, false);
                 childClass = PsiUtil.resolveClassInClassTypeOnly(iterableType);
@@ -202,29 +251,24 @@ public class DubboPsiUtils {
         return root;
     }
 
+    /**
+     * 请求参数的 Json 格式, 只展示第一个参数
+     *
+     * @param reqBody {@link #buildBody(PsiMethod)} 构建的 body
+     * @return json 字符串
+     */
     @NotNull
-    public static String getReqBodyJson(@NotNull PsiMethod psiMethod) {
+    public static String getReqBodyJson(@NotNull Body reqBody) {
 
-        PsiParameter[] parameters = psiMethod.getParameterList().getParameters();
-
-        Map<String, Object> fieldMap = new LinkedHashMap<>();
+        for (Body body : reqBody.getChildList()) {
 
-        for (PsiParameter parameter : parameters) {
-
-            String name = parameter.getName();
-            PsiType type = parameter.getType();
-
-            if (type instanceof PsiPrimitiveType) {
-                fieldMap.put(name, PsiTypesUtil.getDefaultValue(type));
-            } else if (FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
-                fieldMap.put(name, FieldTypeConstant.FIELD_TYPE.get(type.getPresentableText()));
-            } else {
-                PsiClass psiClass = PsiUtil.resolveClassInType(type);
-                if (psiClass != null) {
-                    fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(psiClass, null);
-                }
+            // 基本类型以参数名为 key, 对象展示对象的字段
+            if (body.getExampleValue() != null) {
+                Map<String, Object> fieldMap = new LinkedHashMap<>();
+                fieldMap.put(body.getName(), body.getExampleValue());
+                return GsonFormatUtil.gsonFormat(fieldMap);
             }
-            return GsonFormatUtil.gsonFormat(fieldMap);
+            return GsonFormatUtil.gsonFormat(ParamPsiUtils.buildExample(body));
         }
 
         return "{}";
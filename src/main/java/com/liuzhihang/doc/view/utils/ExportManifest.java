@@ -0,0 +1,169 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.io.DigestUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 增量导出的清单
+ * <p>
+ * 记录上一次导出时每个文件内容的摘要, 内容不变且磁盘上的文件没有被改动时不再写入, 上一次导出过但本次没有的文件会被删除.
+ * 磁盘上的文件是否被改动按文件内容的摘要判断, 被改动过的文件不会被删除
+ * <p>
+ * 清单保存在 .idea/doc-view/export 下, 按导出目录和导出名称区分, 导出单个类时不会删除其他类导出的文件
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Slf4j
+public class ExportManifest {
+
+    private static final Gson GSON = new Gson();
+
+    private final File manifestFile;
+    private final File directory;
+
+    /**
+     * key 为导出目录下的文件名
+     */
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new LinkedHashMap<>();
+
+    private ExportManifest(File manifestFile, File directory, Map<String, Entry> previous) {
+        this.manifestFile = manifestFile;
+        this.directory = directory;
+        this.previous = previous;
+    }
+
+    /**
+     * 读取上一次导出的清单, 不存在或者损坏时按全量导出处理
+     *
+     * @param project   项目
+     * @param directory 导出目录
+     * @param name      导出名称
+     * @return 清单
+     */
+    @NotNull
+    public static ExportManifest load(@NotNull Project project, @NotNull File directory, @NotNull String name) {
+
+        String key = DigestUtil.sha256Hex((directory.getAbsolutePath() + "|" + name).getBytes(StandardCharsets.UTF_8));
+        Path exportDir = StorageUtils.getConfigDir(project).resolveSibling("export");
+        File manifestFile = exportDir.resolve(key + ".json").toFile();
+
+        Map<String, Entry> previous = null;
+        if (manifestFile.isFile()) {
+            try {
+                previous = GSON.fromJson(FileUtil.loadFile(manifestFile, StandardCharsets.UTF_8),
+                        new TypeToken<Map<String, Entry>>() {
+                        }.getType());
+            } catch (IOException | JsonParseException e) {
+                log.warn("Doc View export manifest is broken, export all files", e);
+            }
+        }
+        return new ExportManifest(manifestFile, directory, previous == null ? new HashMap<>() : previous);
+    }
+
+    /**
+     * 记录本次导出的文件, 判断是否需要写入
+     *
+     * @param fileName 导出目录下的文件名
+     * @param content  文件内容
+     * @return true 内容和上一次相同且文件没有被改动, 不需要写入
+     */
+    public boolean isUnchanged(@NotNull String fileName, @NotNull String content) {
+
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Entry entry = new Entry();
+        entry.setHash(DigestUtil.sha256Hex(bytes));
+        entry.setSize(bytes.length);
+        current.put(fileName, entry);
+
+        return entry.equals(previous.get(fileName)) && matches(fileName, entry);
+    }
+
+    /**
+     * 文件是否由上一次导出写入, 并且之后没有被改动过
+     *
+     * @param fileName 导出目录下的文件名
+     * @return true 覆盖时不需要确认
+     */
+    public boolean isOwned(@NotNull String fileName) {
+
+        Entry entry = previous.get(fileName);
+        return entry != null && matches(fileName, entry);
+    }
+
+    /**
+     * 删除上一次导出过但本次没有导出的文件, 导出后被改动过的文件保留
+     */
+    public void removeStale() {
+
+        previous.forEach((fileName, entry) -> {
+            if (!current.containsKey(fileName) && matches(fileName, entry)) {
+                FileUtil.delete(new File(directory, fileName));
+            }
+        });
+    }
+
+    /**
+     * 磁盘上的文件内容和记录的一致, 先比较大小, 大小相同时再比较摘要
+     */
+    private boolean matches(@NotNull String fileName, @NotNull Entry entry) {
+
+        File file = new File(directory, fileName);
+        if (!file.isFile() || file.length() != entry.getSize()) {
+            return false;
+        }
+        try {
+            return DigestUtil.sha256Hex(FileUtil.loadFileBytes(file)).equals(entry.getHash());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 有文档导出失败时保留上一次的记录, 下次导出时再处理
+     */
+    public void keepPrevious() {
+        previous.forEach(current::putIfAbsent);
+    }
+
+    /**
+     * 保存本次导出的清单
+     *
+     * @throws IOException 写入失败
+     */
+    public void save() throws IOException {
+        FileUtil.writeToFile(manifestFile, GSON.toJson(current));
+    }
+
+    @Data
+    public static class Entry {
+
+        /**
+         * 内容的 SHA-256
+         */
+        private String hash;
+
+        /**
+         * 内容的字节数
+         */
+        private long size;
+
+    }
+
+}
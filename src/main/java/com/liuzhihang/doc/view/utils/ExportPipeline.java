@@ -0,0 +1,190 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.liuzhihang.doc.view.dto.DocView;
+import com.liuzhihang.doc.view.dto.DocViewData;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 批量导出流水线
+ * <p>
+ * 1. 构建: 在读操作中构建 DocView, 多个线程并行
+ * <p>
+ * 2. 渲染: 在单独的线程池中的可中断读操作里渲染到每个文档的缓冲区, 多个文档并行
+ * <p>
+ * 3. 写入: 只在调用线程中按提交顺序写文件, 不持有读锁, 未写入的文档数量有上限, 写入慢时暂停提交, 内存占用保持稳定
+ * <p>
+ * 单独导出每个文档时根据 {@link ExportManifest} 跳过内容没有变化的文件
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Slf4j
+public class ExportPipeline {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 已提交还未写入的文档数量上限
+     */
+    private static final int CAPACITY = PARALLELISM * 4;
+
+    private static final ExecutorService BUILD_EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Doc View Export Build", PARALLELISM);
+
+    private static final ExecutorService RENDER_EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Doc View Export Render", PARALLELISM);
+
+    private ExportPipeline() {
+    }
+
+    /**
+     * 导出文档, 需要在后台线程中调用
+     *
+     * @param project   项目
+     * @param sources   文档的构建方法, 在读操作中执行
+     * @param mergeFile 合并导出的文件, 为空时每个文档导出到 directory 下单独的文件
+     * @param directory 导出目录
+     * @param manifest  增量导出的清单, 只在单独导出每个文档时使用
+     * @param indicator 进度
+     * @return 构建或者渲染失败的文档数量
+     * @throws IOException 写入失败
+     */
+    public static int export(@NotNull Project project, @NotNull List<Callable<DocView>> sources, @Nullable File mergeFile,
+                             @NotNull File directory, @Nullable ExportManifest manifest,
+                             @NotNull ProgressIndicator indicator) throws IOException {
+
+        indicator.setIndeterminate(false);
+
+        if (mergeFile != null) {
+            manifest = null;
+        }
+
+        Deque<CompletableFuture<Rendered>> pending = new ArrayDeque<>(CAPACITY);
+        int written = 0;
+        int failed = 0;
+
+        if (mergeFile != null) {
+            FileUtil.createParentDirs(mergeFile);
+        }
+
+        try (Writer mergeWriter = mergeFile == null ? null : Files.newBufferedWriter(mergeFile.toPath(), StandardCharsets.UTF_8)) {
+
+            for (Callable<DocView> source : sources) {
+                indicator.checkCanceled();
+                pending.addLast(submit(project, source, indicator));
+
+                // 达到上限后先写入最早提交的文档
+                if (pending.size() >= CAPACITY) {
+                    if (!write(pending.removeFirst(), mergeWriter, directory, manifest, indicator)) {
+                        failed++;
+                    }
+                    indicator.setFraction((double) ++written / sources.size());
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                if (!write(pending.removeFirst(), mergeWriter, directory, manifest, indicator)) {
+                    failed++;
+                }
+                indicator.setFraction((double) ++written / sources.size());
+            }
+        } catch (ProcessCanceledException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        if (manifest != null) {
+            // 有文档失败时不能确定哪些文件已经不存在了
+            if (failed == 0) {
+                manifest.removeStale();
+            } else {
+                manifest.keepPrevious();
+            }
+            manifest.save();
+        }
+        return failed;
+    }
+
+    @NotNull
+    private static CompletableFuture<Rendered> submit(@NotNull Project project, @NotNull Callable<DocView> source,
+                                                      @NotNull ProgressIndicator indicator) {
+
+        return CompletableFuture
+                .supplyAsync(() -> ReadAction.nonBlocking(source)
+                        .inSmartMode(project)
+                        .wrapProgress(indicator)
+                        .executeSynchronously(), BUILD_EXECUTOR)
+                .thenApplyAsync(docView -> ReadAction.nonBlocking(() -> {
+                            // 渲染到缓冲区, 读操作被中断后重新执行不会重复写入
+                            StringWriter writer = new StringWriter();
+                            boolean success = DocViewData.writeMarkdown(project, docView, writer);
+                            return new Rendered(docView.getName(), success ? writer.toString() : null);
+                        })
+                        .wrapProgress(indicator)
+                        .executeSynchronously(), RENDER_EXECUTOR);
+    }
+
+    /**
+     * @return false 文档构建或者渲染失败
+     */
+    private static boolean write(@NotNull CompletableFuture<Rendered> future, @Nullable Writer mergeWriter, @NotNull File directory,
+                                 @Nullable ExportManifest manifest, @NotNull ProgressIndicator indicator) throws IOException {
+
+        Rendered rendered;
+        try {
+            rendered = ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // 单个文档失败时跳过, 不影响其他文档
+            indicator.checkCanceled();
+            log.warn("Doc View export failed", e);
+            return false;
+        }
+
+        indicator.setText2(rendered.name());
+        if (rendered.markdown() == null) {
+            return false;
+        }
+
+        if (mergeWriter != null) {
+            mergeWriter.write(rendered.markdown());
+            return true;
+        }
+
+        String fileName = rendered.name() + ".md";
+        if (manifest == null || !manifest.isUnchanged(fileName, rendered.markdown())) {
+            FileUtil.writeToFile(new File(directory, fileName), rendered.markdown());
+        }
+        return true;
+    }
+
+    /**
+     * @param markdown 渲染结果, 模版渲染失败时为空
+     */
+    private record Rendered(String name, @Nullable String markdown) {
+    }
+
+}
@@ -1,20 +1,30 @@
 package com.liuzhihang.doc.view.utils;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.fileChooser.FileChooser;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.liuzhihang.doc.view.DocViewBundle;
 import com.liuzhihang.doc.view.config.Settings;
 import com.liuzhihang.doc.view.dto.DocView;
-import com.liuzhihang.doc.view.dto.DocViewData;
 import com.liuzhihang.doc.view.notification.DocViewNotification;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * @author liuzhihang
@@ -67,43 +77,102 @@ public class ExportUtils {
 
         String path = chooser.getPath();
 
-        try {
-            if (settings.getMergeExport()) {
-                // 导出到一个文件中
-                File file = new File(path + "/" + className + ".md");
-
-                // 文件已存在，选择是否覆盖导出。
-                if (file.exists() && !DialogUtil.confirm(
-                        DocViewBundle.message("notify.export.file.exists"),
-                        DocViewBundle.message("notify.export.file.cover"))) {
-                    return;
-                }
-                for (DocView docView : docViewList) {
-                    FileUtil.writeToFile(file, DocViewData.markdownText(project, docView), true);
-                }
-            } else {
-                for (DocView docView : docViewList) {
-
-                    File file = new File(path + "/" + docView.getName() + ".md");
-                    // 文件已存在，选择是否覆盖导出。
-                    if (file.exists() && !DialogUtil.confirm(
-                            DocViewBundle.message("notify.export.file.exists"),
-                            DocViewBundle.message("notify.export.file.cover"))) {
-                        return;
-                    }
-
-                    FileUtil.writeToFile(file, DocViewData.markdownText(project, docView), true);
-                }
+        File mergeFile = null;
+        if (settings.getMergeExport()) {
+            // 导出到一个文件中
+            mergeFile = new File(path + "/" + className + ".md");
 
+            // 文件已存在，选择是否覆盖导出。
+            if (mergeFile.exists() && !DialogUtil.confirm(
+                    DocViewBundle.message("notify.export.file.exists"),
+                    DocViewBundle.message("notify.export.file.cover"))) {
+                return;
             }
+        } else if (!confirmOverwrite(project, new File(path), className,
+                docViewList.stream().map(DocView::getName).collect(Collectors.toList()))) {
+            return;
+        }
 
+        export(project, className, () -> docViewList.stream()
+                .map(docView -> (Callable<DocView>) () -> docView)
+                .collect(Collectors.toList()), null, mergeFile, new File(path));
+    }
 
-            DocViewNotification.notifyInfo(project, DocViewBundle.message("notify.export.success"));
-        } catch (IOException ioException) {
-            DocViewNotification.notifyError(project, DocViewBundle.message("notify.export.fail"));
+    /**
+     * 单独导出每个文档时, 已存在的文件确认是否覆盖, 需要在 UI 线程中调用
+     * <p>
+     * 上一次导出写入且没有被改动的文件由增量导出处理, 不再确认, 重复导出时不会为每个文件弹出对话框
+     *
+     * @param project   项目
+     * @param directory 导出目录
+     * @param name      导出名称, 和 {@link #export} 一致
+     * @param docNames  文档名称
+     * @return false 取消导出
+     */
+    public static boolean confirmOverwrite(Project project, File directory, String name, List<String> docNames) {
+
+        ExportManifest manifest = ExportManifest.load(project, directory, name);
+        for (String docName : docNames) {
+            String fileName = docName + ".md";
+            // 文件已存在，选择是否覆盖导出。
+            if (new File(directory, fileName).exists() && !manifest.isOwned(fileName) && !DialogUtil.confirm(
+                    DocViewBundle.message("notify.export.file.exists"),
+                    DocViewBundle.message("notify.export.file.cover"))) {
+                return false;
+            }
         }
+        return true;
+    }
 
-
+    /**
+     * 在后台按流水线导出, 结束后通知
+     *
+     * @param project   项目
+     * @param name      导出名称, 用于区分增量导出的清单
+     * @param sources   文档的构建方法, 在后台的读操作中获取
+     * @param docNames  文档名称, 不为空时在后台获取后确认是否覆盖已存在的文件, 避免在 UI 线程中遍历目录树
+     * @param mergeFile 合并导出的文件, 为空时每个文档单独导出
+     * @param directory 导出目录
+     */
+    public static void export(Project project, String name, Computable<List<Callable<DocView>>> sources,
+                              @Nullable Computable<List<String>> docNames, File mergeFile, File directory) {
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Doc View export", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    if (docNames != null) {
+                        List<String> names = ReadAction.nonBlocking(docNames::compute)
+                                .inSmartMode(project)
+                                .wrapProgress(indicator)
+                                .executeSynchronously();
+                        AtomicBoolean confirmed = new AtomicBoolean();
+                        ApplicationManager.getApplication().invokeAndWait(() ->
+                                confirmed.set(confirmOverwrite(project, directory, name, names)));
+                        if (!confirmed.get()) {
+                            return;
+                        }
+                    }
+                    List<Callable<DocView>> docViewSources = ReadAction.nonBlocking(sources::compute)
+                            .inSmartMode(project)
+                            .wrapProgress(indicator)
+                            .executeSynchronously();
+                    ExportManifest manifest = mergeFile == null ? ExportManifest.load(project, directory, name) : null;
+                    int failed = ExportPipeline.export(project, docViewSources, mergeFile, directory, manifest, indicator);
+                    if (failed == 0) {
+                        DocViewNotification.notifyInfo(project, DocViewBundle.message("notify.export.success"));
+                    } else if (failed == docViewSources.size()) {
+                        DocViewNotification.notifyError(project, DocViewBundle.message("notify.export.fail"));
+                    } else {
+                        // 部分文档构建或者渲染失败, 详细信息在日志中
+                        DocViewNotification.notifyWarn(project, DocViewBundle.message("notify.export.batch.count",
+                                docViewSources.size() - failed, failed));
+                    }
+                } catch (IOException ioException) {
+                    DocViewNotification.notifyError(project, DocViewBundle.message("notify.export.fail"));
+                }
+            }
+        });
     }
 
 
@@ -2,16 +2,13 @@ package com.liuzhihang.doc.view.utils;
 
 import com.intellij.codeInsight.AnnotationUtil;
 import com.intellij.openapi.module.Module;
-import com.intellij.psi.PsiAnnotation;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiModifierList;
-import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.liuzhihang.doc.view.constant.SpringConstant;
+import com.liuzhihang.doc.view.index.DocViewEndpointIndex;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -34,17 +31,16 @@ public class FeignPsiUtil {
     }
 
     public static List<PsiClass> findDocViewFromModule(Module module) {
+        return findDocViewFromScope(module.getProject(), GlobalSearchScope.moduleScope(module));
+    }
 
-        Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex.getInstance().get("FeignClient", module.getProject(), GlobalSearchScope.moduleScope(module));
+    public static List<PsiClass> findDocViewFromScope(Project project, GlobalSearchScope scope) {
 
         List<PsiClass> psiClasses = new LinkedList<>();
 
-        for (PsiAnnotation psiAnnotation : psiAnnotations) {
-            PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-            PsiElement psiElement = psiModifierList.getParent();
-
-            if (psiElement instanceof PsiClass && isFeignClass((PsiClass) psiElement)) {
-                psiClasses.add((PsiClass) psiElement);
+        for (PsiClass psiClass : DocViewEndpointIndex.findClasses(project, scope, DocViewEndpointIndex.FEIGN)) {
+            if (isFeignClass(psiClass)) {
+                psiClasses.add(psiClass);
             }
         }
         return psiClasses;
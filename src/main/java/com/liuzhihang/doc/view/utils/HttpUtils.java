@@ -1,23 +1,23 @@
 package com.liuzhihang.doc.view.utils;
 
+import com.liuzhihang.doc.view.integration.HttpClientService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.Header;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.*;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
+ * 所有请求共用 {@link HttpClientService} 中的连接池
+ *
  * @author liuzhihang
  * @date 2021/6/11 20:07
  */
@@ -54,21 +54,7 @@ public class HttpUtils {
             headers.forEach(httpGet::addHeader);
         }
 
-        HttpClient client = HttpClientBuilder.create().build();
-        try {
-            HttpResponse response = client.execute(httpGet);
-            int code = response.getStatusLine().getStatusCode();
-            if (code >= 400) {
-                throw new RuntimeException(EntityUtils.toString(response.getEntity()));
-            }
-            return EntityUtils.toString(response.getEntity());
-        } catch (ClientProtocolException e) {
-            throw new Exception("Client protocol exception!", e);
-        } catch (IOException e) {
-            throw new Exception("IO error!", e);
-        } finally {
-            httpGet.releaseConnection();
-        }
+        return execute(httpGet);
     }
 
 
@@ -88,21 +74,7 @@ public class HttpUtils {
         }
 
         httpPost.setEntity(new StringEntity(jsonStr, "UTF-8"));
-        try {
-            HttpClient client = HttpClientBuilder.create().build();
-            HttpResponse response = client.execute(httpPost);
-            int code = response.getStatusLine().getStatusCode();
-            if (code >= 400) {
-                throw new Exception(EntityUtils.toString(response.getEntity()));
-            }
-            return EntityUtils.toString(response.getEntity());
-        } catch (ClientProtocolException e) {
-            throw new Exception("Client protocol exception!", e);
-        } catch (IOException e) {
-            throw new Exception("IO error!", e);
-        } finally {
-            httpPost.releaseConnection();
-        }
+        return execute(httpPost);
     }
 
     /**
@@ -125,20 +97,32 @@ public class HttpUtils {
         }
 
         httpPut.setEntity(new StringEntity(jsonStr, "UTF-8"));
-        try {
-            HttpClient client = HttpClientBuilder.create().build();
-            HttpResponse response = client.execute(httpPut);
+        return execute(httpPut);
+    }
+
+    /**
+     * 使用共用的 HttpClient 发送请求, 读取完响应后连接放回连接池
+     *
+     * @param request
+     * @return
+     * @throws Exception
+     */
+    private static String execute(HttpRequestBase request) throws Exception {
+
+        CloseableHttpClient client = HttpClientService.getInstance().getClient();
+        try (CloseableHttpResponse response = client.execute(request)) {
             int code = response.getStatusLine().getStatusCode();
+            String body = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
             if (code >= 400) {
-                throw new Exception(EntityUtils.toString(response.getEntity()));
+                throw new Exception(body);
             }
-            return EntityUtils.toString(response.getEntity());
+            return body;
         } catch (ClientProtocolException e) {
             throw new Exception("Client protocol exception!", e);
         } catch (IOException e) {
             throw new Exception("IO error!", e);
         } finally {
-            httpPut.releaseConnection();
+            request.releaseConnection();
         }
     }
 
@@ -10,6 +10,7 @@ import com.liuzhihang.doc.view.dto.Body;
 import com.liuzhihang.doc.view.dto.JsonWireType;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.stream.Stream;
@@ -112,6 +113,7 @@ public class ParamPsiUtils {
         if (fieldClass != null) {
             qualifiedName = fieldClass.getQualifiedName();
         }
+        JsonWireType fieldWireType = null;
         if (!parseProtoFieldDesc) {
             body.setType(type.getPresentableText());
             body.setDesc(DocViewUtils.fieldDesc(field));
@@ -119,26 +121,33 @@ public class ParamPsiUtils {
             // 提前替换字段比如 T -> UserDTO   List<T> -> List<UserDTO>
             // 如果是泛型, 且泛型字段是当前字段, 将当前字段类型替换為泛型類型, 替換完之後重新設置 body 的 type
             type = replaceFieldType(genericsMap, type);
-            JsonWireType wireType = JacksonPsiUtils.resolveJsonWireType(field, type);
-            body.setType(wireType.isOverridden() ? wireType.getJsonType() : type.getPresentableText());
-            qualifiedName = wireType.isOverridden() ? wireType.getJsonType() : type.getPresentableText();
+            fieldWireType = JacksonPsiUtils.resolveJsonWireType(field, type);
+            body.setType(fieldWireType.isOverridden() ? fieldWireType.getJsonType() : type.getPresentableText());
+            qualifiedName = fieldWireType.isOverridden() ? fieldWireType.getJsonType() : type.getPresentableText();
             body.setQualifiedNameForClassType(qualifiedName);
             fieldClass = PsiUtil.resolveClassInType(type);
-            if (wireType.isOverridden() && wireType.getExampleOverride() != null) {
-                body.setExample(wireType.getExampleOverride());
+            if (fieldWireType.isOverridden() && fieldWireType.getExampleOverride() != null) {
+                body.setExample(fieldWireType.getExampleOverride());
             }
         }
         body.setParent(parent);
 
         parent.getChildList().add(body);
-        JsonWireType fieldWireType = JacksonPsiUtils.resolveJsonWireType(field, type);
+        if (fieldWireType == null) {
+            fieldWireType = JacksonPsiUtils.resolveJsonWireType(field, type);
+        }
         if (fieldWireType.isOverridden() && isJsonSimpleType(fieldWireType.getJsonType())) {
             if (fieldWireType.getExampleOverride() != null) {
                 body.setExample(fieldWireType.getExampleOverride());
             }
+            body.setExampleValue(fieldWireType.getDefaultValue() != null ? fieldWireType.getDefaultValue() : "");
             return;
         }
+        if (type instanceof PsiArrayType) {
+            body.setExampleValue(arrayExampleValue(type));
+        }
         if (type instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
+            body.setExampleValue(simpleExampleValue(field, type));
 
             // 没有注释 tag 时, 回退读取字段的默认初始化值
             // 例如: int age = 15;  ->  "15"
@@ -156,6 +165,7 @@ public class ParamPsiUtils {
         }
 
         // 判断 childClass 是否已经在根节点到当前节点的链表上存在, 存在的话则不继续递归
+        BodySchemaCache.recordTypeName(parentChildPair, qualifiedName);
         if (StringUtils.isBlank(qualifiedName) || checkLinkedListHasTypeClass(body, qualifiedName, type)) {
             return;
         }
@@ -183,6 +193,7 @@ public class ParamPsiUtils {
             JsonWireType contentWireType = JacksonPsiUtils.resolveContentUsing(field, iterableType);
             if (iterableType instanceof PsiPrimitiveType
                     || FieldTypeConstant.FIELD_TYPE.containsKey(iterableType.getPresentableText())) {
+                body.setExampleValue(collectionExampleValue(iterableType, contentWireType));
                 if (contentWireType.isOverridden()) {
                     String elementExample = contentWireType.getExampleOverride() != null
                             ? contentWireType.getExampleOverride() : "0";
@@ -242,11 +253,15 @@ public class ParamPsiUtils {
 
         } else if (fieldClass == null || fieldClass.isEnum() || fieldClass.isInterface() || fieldClass.isAnnotationType()) {
             // 字段是类, 也可能带泛型
+            if (fieldClass != null) {
+                // enum or interface
+                body.setExampleValue("");
+            }
             return;
 
         } else {
-            // 当前字段的泛型 和当前字段
-            fieldGenericsMap = CustomPsiUtils.getGenericsMap((PsiClassType) type);
+            // 当前字段的泛型 和当前字段, 对象数组展开元素的字段
+            fieldGenericsMap = type instanceof PsiClassType classType ? CustomPsiUtils.getGenericsMap(classType) : null;
             parentBody = body;
             childClass = fieldClass;
         }
@@ -254,9 +269,40 @@ public class ParamPsiUtils {
         if (FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText()) || isProtoMap) {
             return;
         }
+        buildChildBody(childClass, fieldGenericsMap, parentBody, parentChildPair, isProto);
+
+        } finally {
+            // 出栈：退出时从路径栈中移除，允许同类型字段在不同分支中各自被完整解析
+            parentChildPair.remove(pair);
+        }
+    }
+
+    /**
+     * 构建子节点, 已经展开过的类直接使用缓存的结构
+     *
+     * @param childClass      需要展开的类
+     * @param genericsMap     key 是泛型 value 是对应的类型
+     * @param parentBody      父节点
+     * @param parentChildPair 父子对
+     * @param isProto         childClass 是 proto
+     */
+    private static void buildChildBody(@NotNull PsiClass childClass, Map<String, PsiType> genericsMap, @NotNull Body parentBody,
+                                       @NotNull Map<String, Boolean> parentChildPair, boolean isProto) {
+
+        if (!BodySchemaCache.graft(childClass, genericsMap, parentBody, parentChildPair, isProto)) {
+            expandChildBody(childClass, genericsMap, parentBody, parentChildPair, isProto);
+        }
+    }
+
+    /**
+     * 逐个字段展开子节点
+     */
+    static void expandChildBody(@NotNull PsiClass childClass, Map<String, PsiType> genericsMap, @NotNull Body parentBody,
+                                @NotNull Map<String, Boolean> parentChildPair, boolean isProto) {
+
         if (childClass.isRecord()) {
             for (PsiRecordComponent rc : childClass.getRecordComponents()) {
-                buildBodyParamFromComponent(childClass, rc, fieldGenericsMap, parentBody, parentChildPair);
+                buildBodyParamFromComponent(childClass, rc, genericsMap, parentBody, parentChildPair);
             }
             return;
         }
@@ -269,14 +315,9 @@ public class ParamPsiUtils {
                 if (!seenFieldNames.add(psiField.getName())) {
                     continue;
                 }
-                buildBodyParam(childClass, psiField, fieldGenericsMap, parentBody, parentChildPair, isProto);
+                buildBodyParam(childClass, psiField, genericsMap, parentBody, parentChildPair, isProto);
             }
         }
-
-        } finally {
-            // 出栈：退出时从路径栈中移除，允许同类型字段在不同分支中各自被完整解析
-            parentChildPair.remove(pair);
-        }
     }
 
     /**
@@ -438,331 +479,6 @@ public class ParamPsiUtils {
 
     }
 
-    /**
-     * 获取字段的默认值
-     *
-     * @param psiClass          当前类
-     * @param genericMap        泛型
-     * @param qualifiedNameList 根节点到当前节点的链表
-     * @return 字段默认值
-     */
-    public static Map<String, Object> getFieldsAndDefaultValue(PsiClass psiClass, Map<String, PsiType> genericMap, LinkedList<String> qualifiedNameList) {
-
-        Map<String, Object> fieldMap = new LinkedHashMap<>();
-
-        if (psiClass == null || psiClass.isEnum() || psiClass.isInterface() || psiClass.isAnnotationType()) {
-            return fieldMap;
-        }
-
-        if (psiClass.isRecord()) {
-            return getFieldsAndDefaultValueForRecord(psiClass, genericMap, qualifiedNameList);
-        }
-
-        boolean isProto = ProtoUtils.isProto(PsiTypesUtil.getClassType(psiClass));
-
-        // 设置当前类的类型
-        qualifiedNameList.add(psiClass.getQualifiedName());
-        for (PsiField field : psiClass.getAllFields()) {
-//            proto的map类型，不展示子属性
-            if (("Map".equals(psiClass.getName()) || Objects.requireNonNull(psiClass.getName()).startsWith("Map<")) && isProto) {
-                break;
-            }
-            if (DocViewUtils.isExcludeField(field, isProto)) {
-                continue;
-            }
-//            todo 从get方法中获取到真实类型
-
-            String fieldName = DocViewUtils.fieldName(field, isProto);
-            boolean parseProtoFieldType = false;
-            String fieldTypeName = "";
-            boolean isProtoMap = false;
-            PsiType type = field.getType();
-            if (isProto) {
-//            snake_case -> PascalCase
-                String pascalCaseName = DocViewUtils.snakeToPascal(fieldName);
-                boolean isProtoList = false;
-                if (field.getType().getCanonicalText().matches("com\\.google\\.protobuf\\..+List")) {
-                    pascalCaseName += "List";
-                    isProtoList = true;
-                } else if (field.getType().getCanonicalText().matches("com\\.google\\.protobuf\\.MapField.*")) {
-                    pascalCaseName += "Map";
-                    isProtoMap = true;
-                }
-                final String finalPascalCaseName = pascalCaseName;
-                Optional<PsiMethod> psiMethod = Stream.of(psiClass.getMethods()).filter(method -> method.getName().equals("get" + finalPascalCaseName)).findFirst();
-                if (psiMethod.isPresent()) {
-                    PsiMethod method = psiMethod.get();
-                    type = method.getReturnType();
-                    if (type instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText()) || isProtoMap || isProtoList) {
-                        fieldTypeName = type.getPresentableText();
-                    } else {
-                        PsiClass returnTypeClass = PsiUtil.resolveClassInType(type);
-                        if (returnTypeClass != null) {
-                            fieldTypeName = returnTypeClass.getName();
-                        }
-                    }
-                    parseProtoFieldType = true;
-                }
-            }
-            Object defaultValue = SpringPsiUtils.getDefaultValue(field, type);
-            if (!parseProtoFieldType) {
-                // 如果是泛型, 且泛型字段是当前字段, 将当前字段类型替换为泛型类型
-                type = replaceFieldType(genericMap, type);
-
-                // 引用类型
-                fieldTypeName = type.getPresentableText();
-            }
-            JsonWireType wireType = JacksonPsiUtils.resolveJsonWireType(field, type);
-            if (wireType.isOverridden() && isJsonSimpleType(wireType.getJsonType())) {
-                fieldMap.put(fieldName, wireType.getDefaultValue() != null ? wireType.getDefaultValue() : "");
-                continue;
-            }
-            if (type instanceof PsiPrimitiveType) {
-                // 基本类型
-                fieldMap.put(fieldName, defaultValue == null ? PsiTypesUtil.getDefaultValue(type) : defaultValue);
-                continue;
-            }
-            if (wireType.isOverridden()) {
-                fieldTypeName = wireType.getJsonType();
-            }
-            // 指定的类型
-            if (FieldTypeConstant.FIELD_TYPE.containsKey(fieldTypeName)) {
-                Object value = defaultValue == null ? FieldTypeConstant.FIELD_TYPE.get(fieldTypeName) : defaultValue;
-                if (wireType.isOverridden() && wireType.getDefaultValue() != null) {
-                    value = wireType.getDefaultValue();
-                }
-                fieldMap.put(fieldName, value);
-            } else if (type instanceof PsiArrayType) {
-                // 数组类型
-                List<Object> list = new ArrayList<>();
-                PsiType deepType = type.getDeepComponentType();
-                if (deepType instanceof PsiPrimitiveType) {
-                    list.add(PsiTypesUtil.getDefaultValue(deepType));
-                } else if (FieldTypeConstant.FIELD_TYPE.containsKey(deepType.getPresentableText())) {
-                    list.add(FieldTypeConstant.FIELD_TYPE.get(deepType.getPresentableText()));
-                } else {
-                    // 参数类型为对象 校验是否递归
-                    PsiClass classInType = PsiUtil.resolveClassInType(deepType);
-
-                    LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                    if (classInType != null && hasContainQualifiedName(temp, classInType.getQualifiedName())) {
-                        list.add("Object for " + classInType.getName());
-                    } else {
-                        list.add(getFieldsAndDefaultValue(classInType, null, temp));
-                    }
-                }
-                fieldMap.put(fieldName, list);
-            } else if (InheritanceUtil.isInheritor(type, CommonClassNames.JAVA_UTIL_COLLECTION)) {
-                // List Set or HashSet
-                List<Object> list = new ArrayList<>();
-                PsiType iterableType = PsiUtil.extractIterableTypeParameter(type, false);
-                JsonWireType contentWireType = JacksonPsiUtils.resolveContentUsing(field, iterableType);
-                PsiClass iterableClass = PsiUtil.resolveClassInClassTypeOnly(iterableType);
-                if (iterableClass != null) {
-                    String classTypeName = iterableClass.getName();
-                    if (FieldTypeConstant.FIELD_TYPE.containsKey(classTypeName)) {
-                        Object elementValue = FieldTypeConstant.FIELD_TYPE.get(classTypeName);
-                        if (contentWireType.isOverridden() && contentWireType.getDefaultValue() != null) {
-                            elementValue = contentWireType.getDefaultValue();
-                        }
-                        list.add(elementValue);
-                    } else {
-
-                        // 参数类型为对象 校验是否递归
-                        LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                        if (hasContainQualifiedName(temp, iterableClass.getQualifiedName())) {
-                            list.add("Object for " + iterableClass.getName());
-                        } else {
-                            list.add(getFieldsAndDefaultValue(iterableClass, null, temp));
-                        }
-
-                    }
-                }
-                fieldMap.put(fieldName, list);
-            } else if (InheritanceUtil.isInheritor(type, CommonClassNames.JAVA_UTIL_MAP)) {
-                // HashMap or Map
-
-                HashMap<String, Object> hashMap = new HashMap<>(4);
-
-                PsiType matKeyType = PsiUtil.substituteTypeParameter(type, CommonClassNames.JAVA_UTIL_MAP, 0, false);
-
-                // key 只能是 包装类型或者 String
-                if (matKeyType != null && FieldTypeConstant.PACKAGE_TYPE_SET.contains(matKeyType.getPresentableText())) {
-                    // Value
-                    PsiType matValueType = PsiUtil.substituteTypeParameter(type, CommonClassNames.JAVA_UTIL_MAP, 1, false);
-                    if (!ignoreField(matValueType)) {
-                        PsiClass valueClass = PsiUtil.resolveClassInClassTypeOnly(matValueType);
-                        if (valueClass != null) {
-                            LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                            hashMap.put(matKeyType.getPresentableText(), getFieldsAndDefaultValue(valueClass, CustomPsiUtils.getGenericsMap((PsiClassType) matValueType), temp));
-                        }
-                    }
-
-                }
-
-                fieldMap.put(fieldName, hashMap);
-
-            } else if (psiClass.isEnum() || psiClass.isInterface() || psiClass.isAnnotationType()) {
-                // enum or interface
-                fieldMap.put(fieldName, "");
-            } else {
-
-                // 参数类型为对象 校验是否递归
-                PsiClass classInType = PsiUtil.resolveClassInType(type);
-
-                LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                if (classInType != null && hasContainQualifiedName(temp, classInType.getQualifiedName())) {
-                    fieldMap.put(fieldName, "Object for " + classInType.getName());
-                } else {
-                    fieldMap.put(fieldName, getFieldsAndDefaultValue(PsiUtil.resolveClassInType(type), CustomPsiUtils.getGenericsMap((PsiClassType) type), temp));
-                }
-
-            }
-
-        }
-        return fieldMap;
-    }
-
-    public static Map<String, Object> getFieldsAndDefaultValueForRecord(@NotNull PsiClass psiClass, Map<String, PsiType> genericMap) {
-        return getFieldsAndDefaultValueForRecord(psiClass, genericMap, new LinkedList<>());
-    }
-
-    public static Map<String, Object> getFieldsAndDefaultValueForRecord(@NotNull PsiClass psiClass,
-                                                                         Map<String, PsiType> genericMap,
-                                                                         @NotNull LinkedList<String> qualifiedNameList) {
-        Map<String, Object> fieldMap = new LinkedHashMap<>();
-        qualifiedNameList.add(psiClass.getQualifiedName());
-
-        for (PsiRecordComponent component : psiClass.getRecordComponents()) {
-            String fieldName = DocViewUtils.fieldName(component, false);
-            PsiType type = replaceFieldType(genericMap, component.getType());
-            String fieldTypeName = type.getPresentableText();
-            JsonWireType wireType = JacksonPsiUtils.resolveJsonWireType(component, type);
-            if (wireType.isOverridden() && isJsonSimpleType(wireType.getJsonType())) {
-                fieldMap.put(fieldName, wireType.getDefaultValue() != null ? wireType.getDefaultValue() : "");
-                continue;
-            }
-            if (wireType.isOverridden()) {
-                fieldTypeName = wireType.getJsonType();
-            }
-
-            if (type instanceof PsiPrimitiveType) {
-                fieldMap.put(fieldName, PsiTypesUtil.getDefaultValue(type));
-                continue;
-            }
-
-            if (FieldTypeConstant.FIELD_TYPE.containsKey(fieldTypeName)) {
-                Object value = FieldTypeConstant.FIELD_TYPE.get(fieldTypeName);
-                if (wireType.isOverridden() && wireType.getDefaultValue() != null) {
-                    value = wireType.getDefaultValue();
-                }
-                fieldMap.put(fieldName, value);
-            } else if (type instanceof PsiArrayType) {
-                List<Object> list = new ArrayList<>();
-                PsiType deepType = type.getDeepComponentType();
-                if (deepType instanceof PsiPrimitiveType) {
-                    list.add(PsiTypesUtil.getDefaultValue(deepType));
-                } else if (FieldTypeConstant.FIELD_TYPE.containsKey(deepType.getPresentableText())) {
-                    list.add(FieldTypeConstant.FIELD_TYPE.get(deepType.getPresentableText()));
-                } else {
-                    PsiClass classInType = PsiUtil.resolveClassInType(deepType);
-                    LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                    if (classInType != null && hasContainQualifiedName(temp, classInType.getQualifiedName())) {
-                        list.add("Object for " + classInType.getName());
-                    } else if (classInType != null && classInType.isRecord()) {
-                        list.add(getFieldsAndDefaultValueForRecord(classInType, null, temp));
-                    } else {
-                        list.add(getFieldsAndDefaultValue(classInType, null, temp));
-                    }
-                }
-                fieldMap.put(fieldName, list);
-            } else if (InheritanceUtil.isInheritor(type, CommonClassNames.JAVA_UTIL_COLLECTION)) {
-                List<Object> list = new ArrayList<>();
-                PsiType iterableType = PsiUtil.extractIterableTypeParameter(type, false);
-                JsonWireType contentWireType = JacksonPsiUtils.resolveContentUsing(component, iterableType);
-                PsiClass iterableClass = PsiUtil.resolveClassInClassTypeOnly(iterableType);
-                if (iterableClass != null) {
-                    if (FieldTypeConstant.FIELD_TYPE.containsKey(iterableClass.getName())) {
-                        Object elementValue = FieldTypeConstant.FIELD_TYPE.get(iterableClass.getName());
-                        if (contentWireType.isOverridden() && contentWireType.getDefaultValue() != null) {
-                            elementValue = contentWireType.getDefaultValue();
-                        }
-                        list.add(elementValue);
-                    } else {
-                        LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                        if (hasContainQualifiedName(temp, iterableClass.getQualifiedName())) {
-                            list.add("Object for " + iterableClass.getName());
-                        } else if (iterableClass.isRecord()) {
-                            list.add(getFieldsAndDefaultValueForRecord(iterableClass, null, temp));
-                        } else {
-                            list.add(getFieldsAndDefaultValue(iterableClass, null, temp));
-                        }
-                    }
-                }
-                fieldMap.put(fieldName, list);
-            } else if (InheritanceUtil.isInheritor(type, CommonClassNames.JAVA_UTIL_MAP)) {
-                HashMap<String, Object> hashMap = new HashMap<>(4);
-                PsiType matKeyType = PsiUtil.substituteTypeParameter(type, CommonClassNames.JAVA_UTIL_MAP, 0, false);
-                if (matKeyType != null && FieldTypeConstant.PACKAGE_TYPE_SET.contains(matKeyType.getPresentableText())) {
-                    PsiType matValueType = PsiUtil.substituteTypeParameter(type, CommonClassNames.JAVA_UTIL_MAP, 1, false);
-                    if (!ignoreField(matValueType)) {
-                        PsiClass valueClass = PsiUtil.resolveClassInClassTypeOnly(matValueType);
-                        if (valueClass != null) {
-                            LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                            if (valueClass.isRecord()) {
-                                hashMap.put(matKeyType.getPresentableText(), getFieldsAndDefaultValueForRecord(valueClass, CustomPsiUtils.getGenericsMap((PsiClassType) matValueType), temp));
-                            } else {
-                                hashMap.put(matKeyType.getPresentableText(), getFieldsAndDefaultValue(valueClass, CustomPsiUtils.getGenericsMap((PsiClassType) matValueType), temp));
-                            }
-                        }
-                    }
-                }
-                fieldMap.put(fieldName, hashMap);
-            } else {
-                PsiClass classInType = PsiUtil.resolveClassInType(type);
-                LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
-                if (classInType != null && hasContainQualifiedName(temp, classInType.getQualifiedName())) {
-                    fieldMap.put(fieldName, "Object for " + classInType.getName());
-                } else if (classInType != null && classInType.isRecord()) {
-                    fieldMap.put(fieldName, getFieldsAndDefaultValueForRecord(classInType, type instanceof PsiClassType ? CustomPsiUtils.getGenericsMap((PsiClassType) type) : null, temp));
-                } else {
-                    fieldMap.put(fieldName, getFieldsAndDefaultValue(classInType, type instanceof PsiClassType ? CustomPsiUtils.getGenericsMap((PsiClassType) type) : null, temp));
-                }
-            }
-        }
-        return fieldMap;
-    }
-
-    private static boolean hasContainQualifiedName(LinkedList<String> qualifiedNameList, String qualifiedName) {
-
-        if (qualifiedNameList.isEmpty()) {
-            return false;
-        }
-
-        for (String s : qualifiedNameList) {
-            if (s.equals(qualifiedName)) {
-                return true;
-            }
-        }
-
-        return false;
-
-    }
-
-
-    /**
-     * 获取字段和字段的默认值
-     *
-     * @param psiClass
-     * @param genericMap
-     * @return
-     */
-    @NotNull
-    public static Map<String, Object> getFieldsAndDefaultValue(PsiClass psiClass, Map<String, PsiType> genericMap) {
-
-        return getFieldsAndDefaultValue(psiClass, genericMap, new LinkedList<>());
-    }
-
     /**
      * 构造返回 body
      *
@@ -872,18 +588,20 @@ public class ParamPsiUtils {
             body.setParent(parent);
             parent.getChildList().add(body);
 
-            JsonWireType componentWireType = JacksonPsiUtils.resolveJsonWireType(component, type);
-            if (componentWireType.isOverridden() && isJsonSimpleType(componentWireType.getJsonType())) {
-                if (componentWireType.getExampleOverride() != null) {
-                    body.setExample(componentWireType.getExampleOverride());
-                }
+            if (wireType.isOverridden() && isJsonSimpleType(wireType.getJsonType())) {
+                body.setExampleValue(wireType.getDefaultValue() != null ? wireType.getDefaultValue() : "");
                 return;
             }
 
+            if (type instanceof PsiArrayType) {
+                body.setExampleValue(arrayExampleValue(type));
+            }
             if (type instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
+                body.setExampleValue(simpleExampleValue(component, type));
                 return;
             }
 
+            BodySchemaCache.recordTypeName(parentChildPair, qualifiedName);
             if (StringUtils.isBlank(qualifiedName) || checkLinkedListHasTypeClass(body, qualifiedName, type)) {
                 return;
             }
@@ -900,6 +618,7 @@ public class ParamPsiUtils {
                 if (childClass == null) return;
                 JsonWireType contentWireType = JacksonPsiUtils.resolveContentUsing(component, iterableType);
                 if (iterableType instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(iterableType.getPresentableText())) {
+                    body.setExampleValue(collectionExampleValue(iterableType, contentWireType));
                     if (contentWireType.isOverridden()) {
                         String elementExample = contentWireType.getExampleOverride() != null
                                 ? contentWireType.getExampleOverride() : "0";
@@ -935,36 +654,34 @@ public class ParamPsiUtils {
                 parentBody = buildFieldGenericsBody("value", childClass, body);
                 parentBody.setMap(true);
             } else if (fieldClass == null || fieldClass.isEnum() || fieldClass.isInterface() || fieldClass.isAnnotationType()) {
+                if (fieldClass != null) {
+                    body.setExampleValue("");
+                }
                 return;
             } else {
-                fieldGenericsMap = CustomPsiUtils.getGenericsMap((PsiClassType) type);
+                fieldGenericsMap = type instanceof PsiClassType classType ? CustomPsiUtils.getGenericsMap(classType) : null;
                 parentBody = body;
                 childClass = fieldClass;
             }
 
             if (FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) return;
 
-            if (childClass.isRecord()) {
-                for (PsiRecordComponent rc : childClass.getRecordComponents()) {
-                    buildBodyParamFromComponent(childClass, rc, fieldGenericsMap, parentBody, parentChildPair);
-                }
-            } else {
-                Set<String> seenFieldNames = new HashSet<>();
-                for (PsiField psiField : childClass.getAllFields()) {
-                    if (!DocViewUtils.isExcludeField(psiField, false)) {
-                        if (!seenFieldNames.add(psiField.getName())) continue;
-                        buildBodyParam(childClass, psiField, fieldGenericsMap, parentBody, parentChildPair, false);
-                    }
-                }
-            }
+            buildChildBody(childClass, fieldGenericsMap, parentBody, parentChildPair, false);
         } finally {
             parentChildPair.remove(pair);
         }
     }
 
 
+    /**
+     * 根据已经构建好的返回 body 生成返回对象的 Json 格式
+     *
+     * @param returnType 返回类型
+     * @param respBody   {@link #buildRespBody(PsiType)} 构建的 body
+     * @return json 字符串
+     */
     @NotNull
-    public static String getRespBodyJson(PsiType returnType) {
+    public static String getRespBodyJson(PsiType returnType, @NotNull Body respBody) {
 
         if (returnType instanceof PsiPrimitiveType || FieldTypeConstant.FIELD_TYPE.containsKey(returnType.getPresentableText())) {
             return "";
@@ -995,19 +712,18 @@ public class ParamPsiUtils {
                         return "[\"\"]";
                     }
 
+                    // buildRespBody 中集合节点的子节点即为元素的字段
                     PsiClass iterableClass = PsiUtil.resolveClassInClassTypeOnly(iterableType);
-                    Map<String, Object> fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(iterableClass, null);
+                    Map<String, Object> fieldMap = respBody.getChildList().isEmpty()
+                            ? new LinkedHashMap<>()
+                            : buildExample(respBody.getChildList().get(0), withClass(new LinkedList<>(), iterableClass));
 
                     Object[] objectArr = {fieldMap};
 
                     return GsonFormatUtil.gsonFormat(objectArr);
                 } else {
 
-                    Map<String, PsiType> genericsMap = CustomPsiUtils.getGenericsMap(psiClassType);
-
-                    Map<String, Object> fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(psiClass, genericsMap);
-
-                    return GsonFormatUtil.gsonFormat(fieldMap);
+                    return GsonFormatUtil.gsonFormat(buildExample(respBody));
                 }
             }
         } else {
@@ -1017,4 +733,206 @@ public class ParamPsiUtils {
         return "";
     }
 
+    /**
+     * 根据构建好的 body 生成示例
+     * <p>
+     * 字段类型、泛型、Jackson 类型、默认值在构建 body 时已经解析, 这里只遍历 body, 不再重新解析类
+     *
+     * @param parent 父节点
+     * @return key 为字段名, value 为示例值
+     */
+    @NotNull
+    public static Map<String, Object> buildExample(@NotNull Body parent) {
+
+        LinkedList<String> qualifiedNameList = new LinkedList<>();
+        if (StringUtils.isNotBlank(parent.getQualifiedNameForClassType())) {
+            qualifiedNameList.add(parent.getQualifiedNameForClassType());
+        }
+        return buildExample(parent, qualifiedNameList);
+    }
+
+    /**
+     * @param qualifiedNameList 根节点到当前节点展开过的类, 集合、数组的元素以及对象已经在链表上时不再展开
+     */
+    @NotNull
+    private static Map<String, Object> buildExample(@NotNull Body parent, @NotNull LinkedList<String> qualifiedNameList) {
+
+        Map<String, Object> fieldMap = new LinkedHashMap<>();
+
+        for (Body body : parent.getChildList()) {
+            String name = body.getName() == null ? "" : body.getName();
+            if (!fieldMap.containsKey(name)) {
+                fieldMap.put(name, exampleValue(body, qualifiedNameList));
+            }
+        }
+        return fieldMap;
+    }
+
+    /**
+     * 基本类型和包装类型的示例值, 优先使用初始化值
+     *
+     * @param variable 字段或参数
+     * @param type     类型
+     * @return 示例值
+     */
+    @Nullable
+    public static Object simpleExampleValue(@NotNull PsiVariable variable, @NotNull PsiType type) {
+
+        Object defaultValue = SpringPsiUtils.getDefaultValue(variable, type);
+        if (defaultValue != null) {
+            return defaultValue;
+        }
+        return type instanceof PsiPrimitiveType
+                ? PsiTypesUtil.getDefaultValue(type)
+                : FieldTypeConstant.FIELD_TYPE.get(type.getPresentableText());
+    }
+
+    /**
+     * 根据构建好的 body 生成当前节点的示例值
+     *
+     * @param body              节点
+     * @param qualifiedNameList 根节点到当前节点展开过的类
+     * @return 示例值
+     */
+    @Nullable
+    private static Object exampleValue(@NotNull Body body, @NotNull LinkedList<String> qualifiedNameList) {
+
+        if (body.getExampleValue() != null) {
+            return body.getExampleValue();
+        }
+
+        if (body.isCollection()) {
+            List<Object> list = new ArrayList<>();
+            Body element = genericsChild(body, "element");
+            if (element != null) {
+                list.add(elementExampleValue(element, (PsiClass) element.getPsiElement(), qualifiedNameList));
+            } else if (!body.getChildList().isEmpty()) {
+                list.add(buildExample(body, qualifiedNameList));
+            }
+            return list;
+        }
+
+        // Map 只有一个 key, value 为对象时才有子节点
+        Body key = genericsChild(body, "key");
+        if (key != null) {
+            HashMap<String, Object> hashMap = new HashMap<>(4);
+            Body value = genericsChild(body, "value");
+            if (value != null) {
+                hashMap.put(key.getType(), buildExample(value, withClass(qualifiedNameList, (PsiClass) value.getPsiElement())));
+            }
+            return hashMap;
+        }
+
+        if (!body.getChildList().isEmpty()) {
+            PsiClass psiClass = body.getPsiElement() instanceof PsiVariable variable
+                    ? PsiUtil.resolveClassInType(variable.getType()) : null;
+            if (body.getType() != null && body.getType().endsWith("[]")) {
+                // 对象数组, 子节点为元素的字段
+                List<Object> list = new ArrayList<>();
+                list.add(elementExampleValue(body, psiClass, qualifiedNameList));
+                return list;
+            }
+            if (psiClass != null && qualifiedNameList.contains(psiClass.getQualifiedName())) {
+                return "Object for " + psiClass.getName();
+            }
+            return buildExample(body, withClass(qualifiedNameList, psiClass));
+        }
+
+        String type = body.getType();
+        if (type == null) {
+            return null;
+        }
+        if (FieldTypeConstant.FIELD_TYPE.containsKey(type)) {
+            return FieldTypeConstant.FIELD_TYPE.get(type);
+        }
+        if (FieldTypeConstant.BASE_TYPE_SET.contains(type)) {
+            return switch (type) {
+                case "boolean" -> false;
+                case "float", "double" -> 0.0;
+                default -> 0;
+            };
+        }
+        // 递归的对象不再展开
+        String qualifiedName = body.getQualifiedNameForClassType();
+        if (StringUtils.isNotBlank(qualifiedName) && checkLinkedListHasTypeClass(body, qualifiedName)) {
+            return "Object for " + StringUtils.substringBefore(type, "<");
+        }
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * 集合、数组的元素, 元素的类已经展开过时为 "Object for 类名"
+     *
+     * @param element      元素节点, 子节点为元素的字段
+     * @param elementClass 元素的类
+     */
+    @NotNull
+    private static Object elementExampleValue(@NotNull Body element, @Nullable PsiClass elementClass,
+                                              @NotNull LinkedList<String> qualifiedNameList) {
+
+        if (elementClass != null && qualifiedNameList.contains(elementClass.getQualifiedName())) {
+            return "Object for " + elementClass.getName();
+        }
+        return buildExample(element, withClass(qualifiedNameList, elementClass));
+    }
+
+    /**
+     * 展开下一层时复制链表, 不同分支互不影响
+     */
+    @NotNull
+    private static LinkedList<String> withClass(@NotNull LinkedList<String> qualifiedNameList, @Nullable PsiClass psiClass) {
+
+        LinkedList<String> temp = new LinkedList<>(qualifiedNameList);
+        if (psiClass != null && StringUtils.isNotBlank(psiClass.getQualifiedName())) {
+            temp.add(psiClass.getQualifiedName());
+        }
+        return temp;
+    }
+
+    /**
+     * 集合和 Map 构建时创建的 element/key/value 节点
+     */
+    @Nullable
+    private static Body genericsChild(@NotNull Body body, @NotNull String name) {
+
+        for (Body child : body.getChildList()) {
+            if (name.equals(child.getName()) && child.getPsiElement() instanceof PsiClass) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static List<Object> collectionExampleValue(@NotNull PsiType iterableType, @NotNull JsonWireType contentWireType) {
+
+        Object elementValue = iterableType instanceof PsiPrimitiveType
+                ? PsiTypesUtil.getDefaultValue(iterableType)
+                : FieldTypeConstant.FIELD_TYPE.get(iterableType.getPresentableText());
+        if (contentWireType.isOverridden() && contentWireType.getDefaultValue() != null) {
+            elementValue = contentWireType.getDefaultValue();
+        }
+        List<Object> list = new ArrayList<>();
+        list.add(elementValue);
+        return list;
+    }
+
+    /**
+     * 数组只处理元素是基本类型和包装类型的情况, 对象数组根据子节点生成
+     */
+    @Nullable
+    private static List<Object> arrayExampleValue(@NotNull PsiType type) {
+
+        PsiType deepType = type.getDeepComponentType();
+        List<Object> list = new ArrayList<>();
+        if (deepType instanceof PsiPrimitiveType) {
+            list.add(PsiTypesUtil.getDefaultValue(deepType));
+        } else if (FieldTypeConstant.FIELD_TYPE.containsKey(deepType.getPresentableText())) {
+            list.add(FieldTypeConstant.FIELD_TYPE.get(deepType.getPresentableText()));
+        } else {
+            return null;
+        }
+        return list;
+    }
+
 }
@@ -5,14 +5,11 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.util.Computable;
 import com.intellij.psi.*;
 import com.intellij.psi.util.PsiTypesUtil;
-import com.intellij.psi.util.PsiUtil;
 import com.liuzhihang.doc.view.config.Settings;
-import com.liuzhihang.doc.view.constant.FieldTypeConstant;
 import com.liuzhihang.doc.view.dto.Body;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -70,26 +67,14 @@ public class PojoUtils extends ParamPsiUtils {
         return root;
     }
 
-    public static String reqBodyJson(PsiClass psiClass) {
-
-        Map<String, Object> fieldMap = new LinkedHashMap<>();
-        String name = psiClass.getName();
-        PsiType type = PsiTypesUtil.getClassType(psiClass);
-
-        if (type instanceof PsiPrimitiveType) {
-            fieldMap.put(name, PsiTypesUtil.getDefaultValue(type));
-        } else if (FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
-            fieldMap.put(name, FieldTypeConstant.FIELD_TYPE.get(type.getPresentableText()));
-        } else {
-            if (psiClass != null) {
-                if (psiClass.isRecord()) {
-                    fieldMap = ParamPsiUtils.getFieldsAndDefaultValueForRecord(psiClass, null);
-                } else {
-                    fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(psiClass, null);
-                }
-            }
-        }
-
-        return GsonFormatUtil.gsonFormat(fieldMap);
+    /**
+     * 请求对象的 Json 格式
+     *
+     * @param reqBody {@link #buildBody(PsiClass)} 构建的 body
+     * @return json 字符串
+     */
+    @NotNull
+    public static String reqBodyJson(@NotNull Body reqBody) {
+        return GsonFormatUtil.gsonFormat(ParamPsiUtils.buildExample(reqBody));
     }
 }
@@ -1,20 +1,19 @@
 package com.liuzhihang.doc.view.utils;
 
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileTypes.FileType;
-import com.intellij.openapi.fileTypes.FileTypes;
 import com.intellij.psi.*;
+import com.liuzhihang.doc.view.index.ProtoDefinitionIndex;
+import com.liuzhihang.doc.view.proto.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Utility class for parsing proto file gRPC service definitions.
  * Extracts service names, method names, and request message fields
  * for generating gRPC curl commands.
+ * The proto file structure comes from {@link ProtoParser}.
  *
  * @author liuzhihang
  */
@@ -23,30 +22,6 @@ public final class ProtoGrpcUtils {
     private ProtoGrpcUtils() {
     }
 
-    /**
-     * Pattern to match rpc method definition: rpc MethodName(RequestType) returns (ResponseType)
-     */
-    private static final Pattern RPC_METHOD_PATTERN = Pattern.compile(
-            "\\s*rpc\\s+(\\w+)\\s*\\((\\w+)\\)\\s*returns\\s*\\((\\w+)\\)");
-
-    /**
-     * Pattern to match service definition: service ServiceName {
-     */
-    private static final Pattern SERVICE_PATTERN = Pattern.compile(
-            "\\s*service\\s+(\\w+)\\s*\\{");
-
-    /**
-     * Pattern to match message definition: message MessageName {
-     */
-    private static final Pattern MESSAGE_PATTERN = Pattern.compile(
-            "\\s*message\\s+(\\w+)\\s*\\{");
-
-    /**
-     * Pattern to match field definition: type fieldName = number;
-     */
-    private static final Pattern FIELD_PATTERN = Pattern.compile(
-            "\\s*(\\w+(?:<[^>]+>)?)\\s+(\\w+)\\s*=\\s*\\d+");
-
     /**
      * Check if the cursor is on a proto gRPC method definition.
      *
@@ -59,12 +34,7 @@ public final class ProtoGrpcUtils {
             return false;
         }
 
-        String line = getCurrentLine(editor);
-        if (line == null) {
-            return false;
-        }
-
-        return RPC_METHOD_PATTERN.matcher(line).find();
+        return findRpc(editor, psiFile) != null;
     }
 
     /**
@@ -104,196 +74,71 @@ public final class ProtoGrpcUtils {
      */
     @Nullable
     public static String[] extractMethodSignature(@NotNull Editor editor, @NotNull PsiFile psiFile) {
-        String line = getCurrentLine(editor);
-        if (line == null) {
-            return null;
-        }
-
-        Matcher matcher = RPC_METHOD_PATTERN.matcher(line);
-        if (!matcher.find()) {
-            return null;
-        }
-
-        String methodName = matcher.group(1);
-        String requestType = matcher.group(2);
-        String responseType = matcher.group(3);
-
-        String serviceName = findServiceName(editor, psiFile);
-        if (serviceName == null) {
+        ProtoRpc rpc = findRpc(editor, psiFile);
+        if (rpc == null) {
             return null;
         }
 
-        return new String[]{serviceName, methodName, requestType, responseType};
+        return new String[]{rpc.getServiceName(), rpc.getName(), rpc.getRequestType(), rpc.getResponseType()};
     }
 
     /**
-     * Find the service name containing the current cursor position.
+     * Find the rpc method definition on the cursor line.
+     * The proto file is parsed once per modification, see {@link ProtoParser#parse(PsiFile)}.
      *
      * @param editor the editor
      * @param psiFile the psi file
-     * @return service name or null
+     * @return rpc method or null
      */
     @Nullable
-    private static String findServiceName(@NotNull Editor editor, @NotNull PsiFile psiFile) {
-        String text = psiFile.getText();
-        int offset = editor.getCaretModel().getOffset();
-
-        // Find the last service definition before cursor
-        Matcher serviceMatcher = SERVICE_PATTERN.matcher(text);
-        String lastServiceName = null;
-        int lastServiceEnd = -1;
-
-        while (serviceMatcher.find()) {
-            if (serviceMatcher.start() < offset) {
-                lastServiceName = serviceMatcher.group(1);
-                lastServiceEnd = findMatchingBrace(text, serviceMatcher.end());
-            }
-        }
-
-        // Check if cursor is within the service block
-        if (lastServiceName != null && offset <= lastServiceEnd) {
-            return lastServiceName;
-        }
-
-        return null;
+    public static ProtoRpc findRpc(@NotNull Editor editor, @NotNull PsiFile psiFile) {
+        Document document = editor.getDocument();
+        int line = document.getLineNumber(editor.getCaretModel().getOffset());
+        return ProtoParser.parse(psiFile).findRpc(document.getLineStartOffset(line), document.getLineEndOffset(line));
     }
 
     /**
-     * Find matching closing brace for an opening brace position.
-     *
-     * @param text the text
-     * @param startPos position after opening brace
-     * @return position of matching closing brace
-     */
-    private static int findMatchingBrace(String text, int startPos) {
-        int depth = 1;
-        for (int i = startPos; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c == '{') {
-                depth++;
-            } else if (c == '}') {
-                depth--;
-                if (depth == 0) {
-                    return i;
-                }
-            }
-        }
-        return text.length();
-    }
-
-    /**
-     * Parse request message type and extract field names with types.
+     * Resolve a message by the type name used in an rpc definition.
+     * Messages imported from other proto files are looked up in {@link ProtoDefinitionIndex}.
+     * Falls back to the simple name so nested messages can still be found without the outer name.
      *
      * @param psiFile the proto file
-     * @param messageTypeName the message type name to parse
-     * @return list of [fieldName, fieldType] pairs
+     * @param typeName the message type name
+     * @return message with the parsed file it is defined in, or null
      */
-    @NotNull
-    public static List<String[]> parseMessageFields(@NotNull PsiFile psiFile, @NotNull String messageTypeName) {
-        List<String[]> fields = new ArrayList<>();
-        String text = psiFile.getText();
-
-        // Find the message definition
-        Pattern messageDefPattern = Pattern.compile(
-                "\\s*message\\s+" + Pattern.quote(messageTypeName) + "\\s*\\{");
-        Matcher messageMatcher = messageDefPattern.matcher(text);
-
-        if (!messageMatcher.find()) {
-            return fields;
+    @Nullable
+    private static ProtoReference resolveMessage(@NotNull PsiFile psiFile, @NotNull String typeName) {
+        ProtoFile protoFile = ProtoParser.parse(psiFile);
+        ProtoReference reference = protoFile.resolve(protoFile.getPackageName(), typeName,
+                ProtoDefinitionIndex.resolver(psiFile.getProject()));
+        if (reference != null && reference.getMessage() != null) {
+            return reference;
         }
 
-        int messageStart = messageMatcher.end();
-        int messageEnd = findMatchingBrace(text, messageStart);
-        String messageBody = text.substring(messageStart, messageEnd);
-
-        // Parse fields
-        String[] lines = messageBody.split("\n");
-        for (String line : lines) {
-            Matcher fieldMatcher = FIELD_PATTERN.matcher(line);
-            if (fieldMatcher.find()) {
-                String fieldType = fieldMatcher.group(1);
-                String fieldName = fieldMatcher.group(2);
-                fields.add(new String[]{fieldName, fieldType});
+        for (ProtoMessage candidate : protoFile.getMessageMap().values()) {
+            if (candidate.getName().equals(typeName)) {
+                return new ProtoReference(protoFile, candidate, null);
             }
         }
-
-        return fields;
+        return null;
     }
 
     /**
-     * Generate JSON body with default values based on proto field types.
+     * Generate JSON body for a request message.
+     * Nested message fields are expanded recursively, repeated fields become arrays and map fields become objects,
+     * see {@link ProtoJsonBuilder}.
      *
-     * @param fields list of [fieldName, fieldType] pairs
+     * @param psiFile the proto file
+     * @param messageTypeName the message type name
      * @return JSON string
      */
     @NotNull
-    public static String generateJsonBody(@NotNull List<String[]> fields) {
-        if (fields.isEmpty()) {
-            return "{}";
-        }
-
-        StringBuilder json = new StringBuilder("{\n");
-        for (int i = 0; i < fields.size(); i++) {
-            String[] field = fields.get(i);
-            String fieldName = field[0];
-            String fieldType = field[1];
-            String defaultValue = getDefaultValueForType(fieldType);
-
-            json.append("  \"").append(fieldName).append("\": ").append(defaultValue);
-            if (i < fields.size() - 1) {
-                json.append(",");
-            }
-            json.append("\n");
-        }
-        json.append("}");
-
-        return json.toString();
-    }
-
-    /**
-     * Get default value for a proto field type.
-     *
-     * @param fieldType the proto field type
-     * @return default value as string
-     */
-    @NotNull
-    private static String getDefaultValueForType(@NotNull String fieldType) {
-        String lowerType = fieldType.toLowerCase();
-
-        // Numeric types
-        if (lowerType.contains("int") || lowerType.contains("uint") ||
-                lowerType.contains("sint") || lowerType.contains("fixed") ||
-                lowerType.contains("sfixed") || lowerType.equals("float") ||
-                lowerType.equals("double")) {
-            return "0";
-        }
-
-        // Boolean
-        if (lowerType.equals("bool")) {
-            return "false";
-        }
-
-        // String
-        if (lowerType.equals("string")) {
-            return "\"\"";
-        }
-
-        // Bytes
-        if (lowerType.equals("bytes")) {
-            return "\"\"";
-        }
-
-        // Enum (default is first value, typically 0)
-        if (lowerType.contains("enum")) {
-            return "0";
-        }
-
-        // Message types (nested objects)
-        if (Character.isUpperCase(fieldType.charAt(0))) {
+    public static String generateJsonBody(@NotNull PsiFile psiFile, @NotNull String messageTypeName) {
+        ProtoReference reference = resolveMessage(psiFile, messageTypeName);
+        if (reference == null) {
             return "{}";
         }
 
-        // Default
-        return "null";
+        return ProtoJsonBuilder.toJson(psiFile, reference.getFile(), reference.getMessage());
     }
 }
@@ -1,88 +1,240 @@
 package com.liuzhihang.doc.view.utils;
 
-import com.google.protobuf.DescriptorProtos;
-import com.google.protobuf.Descriptors;
-import com.google.protobuf.compiler.PluginProtos;
 import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.*;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.liuzhihang.doc.view.proto.*;
+import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import javax.lang.model.SourceVersion;
+import java.util.Map;
 
+/**
+ * 将 proto 文件中的 message 转为 PsiClass, 用于生成文档
+ * <p>
+ * 根据 {@link ProtoParser} 的解析结果生成 Java 代码, message 和 enum 为类, 嵌套的为内部类, 注释转为 JavaDoc.
+ * <p>
+ * 生成的 PsiJavaFile 按 proto 文件的修改次数缓存, 文件不变时直接使用
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
 public class ProtoToPsiClassConverter {
 
+    private static final Key<CachedValue<PsiJavaFile>> JAVA_FILE = Key.create("DocView.ProtoJavaFile");
+
+    private static final Map<String, String> SCALARS = Map.ofEntries(
+            Map.entry("double", "double"),
+            Map.entry("float", "float"),
+            Map.entry("int32", "int"),
+            Map.entry("uint32", "int"),
+            Map.entry("sint32", "int"),
+            Map.entry("fixed32", "int"),
+            Map.entry("sfixed32", "int"),
+            Map.entry("int64", "long"),
+            Map.entry("uint64", "long"),
+            Map.entry("sint64", "long"),
+            Map.entry("fixed64", "long"),
+            Map.entry("sfixed64", "long"),
+            Map.entry("bool", "boolean"),
+            Map.entry("string", "String"),
+            Map.entry("bytes", "com.google.protobuf.ByteString"));
+
+    private static final Map<String, String> BOXED = Map.of(
+            "int", "Integer",
+            "long", "Long",
+            "float", "Float",
+            "double", "Double",
+            "boolean", "Boolean");
+
+    private ProtoToPsiClassConverter() {
+    }
+
+    /**
+     * 获取光标所在的顶层 message 对应的 PsiClass, 光标不在 message 中时为之前最近的一个
+     *
+     * @param protoFile proto 文件
+     * @param project   项目
+     * @param offset    光标位置
+     * @return PsiClass, 没有 message 时为空
+     */
     @Nullable
-    public static PsiClass convertProtoToPsiClass(@NotNull PsiFile protoFile, @NotNull Project project) {
+    public static PsiClass convertProtoToPsiClass(@NotNull PsiFile protoFile, @NotNull Project project, int offset) {
+
         // Ensure the file is a .proto file
         if (!protoFile.getName().endsWith(".proto")) {
             return null;
         }
 
-        // Parse the .proto file and generate Java code
-        String javaCode = generateJavaCodeFromProto(protoFile);
+        PsiJavaFile javaFile = CachedValuesManager.getCachedValue(protoFile, JAVA_FILE, () ->
+                CachedValueProvider.Result.create(createJavaFile(protoFile, project), protoFile));
 
-        // Create a PsiFile from the generated Java code
-        PsiFile javaPsiFile = PsiFileFactory.getInstance(project).createFileFromText("GeneratedClass.java", JavaLanguage.INSTANCE, javaCode);
+        PsiClass[] classes = javaFile.getClasses();
+        if (classes.length == 0) {
+            return null;
+        }
 
-        // Extract the PsiClass from the generated Java PsiFile
-        return PsiTreeUtil.findChildOfType(javaPsiFile, PsiClass.class);
+        // 前面的类和顶层 message 一一对应
+        ProtoFile parsed = ProtoParser.parse(protoFile);
+        int index = 0;
+        for (int i = 0; i < parsed.getMessages().size() && i < classes.length; i++) {
+            if (parsed.getMessages().get(i).getTextOffset() <= offset) {
+                index = i;
+            }
+        }
+        return classes[index];
     }
 
-    private static String generateJavaCodeFromProto(PsiFile protoFile) {
-        try {
-            FileInputStream fis = new FileInputStream(protoFile.getVirtualFile().getPath());
-            DescriptorProtos.FileDescriptorProto fileDescriptorProto = DescriptorProtos.FileDescriptorProto.parseFrom(fis);
-            Descriptors.FileDescriptor fileDescriptor = Descriptors.FileDescriptor.buildFrom(fileDescriptorProto, new Descriptors.FileDescriptor[]{});
+    @NotNull
+    private static PsiJavaFile createJavaFile(@NotNull PsiFile protoFile, @NotNull Project project) {
 
-            StringBuilder javaCode = new StringBuilder();
-            for (Descriptors.Descriptor descriptor : fileDescriptor.getMessageTypes()) {
-                javaCode.append(generateJavaClassFromDescriptor(descriptor));
-            }
-            return javaCode.toString();
-        } catch (IOException | Descriptors.DescriptorValidationException e) {
-            e.printStackTrace();
-            return "";
+        String javaCode = generateJavaCode(ProtoParser.parse(protoFile));
+        String fileName = StringUtils.removeEnd(protoFile.getName(), ".proto") + ".java";
+        return (PsiJavaFile) PsiFileFactory.getInstance(project).createFileFromText(fileName, JavaLanguage.INSTANCE, javaCode);
+    }
+
+    /**
+     * 根据解析结果生成 Java 代码
+     *
+     * @param protoFile proto 文件的解析结果
+     * @return Java 代码
+     */
+    @NotNull
+    static String generateJavaCode(@NotNull ProtoFile protoFile) {
+
+        StringBuilder javaCode = new StringBuilder();
+        String javaPackage = protoFile.getOptions().get("java_package");
+        if (StringUtils.isBlank(javaPackage)) {
+            javaPackage = protoFile.getPackageName();
+        }
+        if (StringUtils.isNotBlank(javaPackage)) {
+            javaCode.append("package ").append(javaPackage).append(";\n\n");
+        }
+
+        for (ProtoMessage message : protoFile.getMessages()) {
+            appendMessage(javaCode, protoFile, message, "");
+        }
+        // enum 放在 message 之后, 保证前面的类和顶层 message 一一对应
+        for (ProtoEnum protoEnum : protoFile.getEnums()) {
+            appendEnum(javaCode, protoEnum, "");
         }
+        return javaCode.toString();
     }
 
-    private static String generateJavaClassFromDescriptor(Descriptors.Descriptor descriptor) {
-        StringBuilder classCode = new StringBuilder();
-        classCode.append("public class ").append(descriptor.getName()).append(" {\n");
+    private static void appendMessage(@NotNull StringBuilder javaCode, @NotNull ProtoFile protoFile,
+                                      @NotNull ProtoMessage message, @NotNull String indent) {
+
+        appendComment(javaCode, message.getComment(), indent);
+        javaCode.append(indent).append(indent.isEmpty() ? "public class " : "public static class ")
+                .append(message.getName()).append(" {\n");
 
-        for (Descriptors.FieldDescriptor field : descriptor.getFields()) {
-            classCode.append("    private ").append(getJavaType(field)).append(" ").append(field.getName()).append(";\n");
+        String fieldIndent = indent + "    ";
+        for (ProtoField field : message.getFields()) {
+            appendComment(javaCode, field.getComment(), fieldIndent);
+            javaCode.append(fieldIndent).append("private ").append(getJavaType(protoFile, message, field))
+                    .append(" ").append(getJavaName(field.getName())).append(";\n");
         }
 
-        classCode.append("}\n");
-        return classCode.toString();
+        for (ProtoMessage nested : message.getMessages()) {
+            javaCode.append("\n");
+            appendMessage(javaCode, protoFile, nested, fieldIndent);
+        }
+        for (ProtoEnum nested : message.getEnums()) {
+            javaCode.append("\n");
+            appendEnum(javaCode, nested, fieldIndent);
+        }
+
+        javaCode.append(indent).append("}\n");
     }
 
-    private static String getJavaType(Descriptors.FieldDescriptor field) {
-        switch (field.getJavaType()) {
-            case INT:
-                return "int";
-            case LONG:
-                return "long";
-            case FLOAT:
-                return "float";
-            case DOUBLE:
-                return "double";
-            case BOOLEAN:
-                return "boolean";
-            case STRING:
-                return "String";
-            case BYTE_STRING:
-                return "com.google.protobuf.ByteString";
-            case ENUM:
-                return field.getEnumType().getName();
-            case MESSAGE:
-                return field.getMessageType().getName();
-            default:
-                return "Object";
+    private static void appendEnum(@NotNull StringBuilder javaCode, @NotNull ProtoEnum protoEnum, @NotNull String indent) {
+
+        appendComment(javaCode, protoEnum.getComment(), indent);
+        javaCode.append(indent).append("public enum ").append(protoEnum.getName()).append(" {\n");
+
+        String valueIndent = indent + "    ";
+        for (ProtoEnum.Value value : protoEnum.getValues()) {
+            appendComment(javaCode, value.getComment(), valueIndent);
+            javaCode.append(valueIndent).append(getJavaName(value.getName())).append(",\n");
         }
+        javaCode.append(indent).append("}\n");
     }
-}
\ No newline at end of file
+
+    private static void appendComment(@NotNull StringBuilder javaCode, @Nullable String comment, @NotNull String indent) {
+
+        if (StringUtils.isBlank(comment)) {
+            return;
+        }
+        javaCode.append(indent).append("/**\n");
+        for (String line : comment.replace("*/", "* /").split("\n")) {
+            javaCode.append(indent).append(" * ").append(line).append("\n");
+        }
+        javaCode.append(indent).append(" */\n");
+    }
+
+    @NotNull
+    private static String getJavaType(@NotNull ProtoFile protoFile, @NotNull ProtoMessage message, @NotNull ProtoField field) {
+
+        if (field.isMap()) {
+            return "java.util.Map<" + boxed(getJavaType(protoFile, message, field.getKeyType()))
+                    + ", " + boxed(getJavaType(protoFile, message, field.getValueType())) + ">";
+        }
+        String type = getJavaType(protoFile, message, field.getType());
+        return field.isRepeated() ? "java.util.List<" + boxed(type) + ">" : type;
+    }
+
+    /**
+     * 当前文件中的 message 和 enum 使用生成的类, 其他文件中的类型无法解析, 只保留名称
+     */
+    @NotNull
+    private static String getJavaType(@NotNull ProtoFile protoFile, @NotNull ProtoMessage message, @NotNull String type) {
+
+        String scalar = SCALARS.get(type);
+        if (scalar != null) {
+            return scalar;
+        }
+
+        String fullName = null;
+        ProtoMessage typeMessage = protoFile.findMessage(message.getFullName(), type);
+        if (typeMessage != null) {
+            fullName = typeMessage.getFullName();
+        } else {
+            ProtoEnum typeEnum = protoFile.findEnum(message.getFullName(), type);
+            if (typeEnum != null) {
+                fullName = typeEnum.getFullName();
+            }
+        }
+
+        if (fullName != null) {
+            // 去掉包名, 生成的类在同一个文件中
+            return StringUtils.isEmpty(protoFile.getPackageName())
+                    ? fullName : fullName.substring(protoFile.getPackageName().length() + 1);
+        }
+
+        String name = StringUtils.removeStart(type, ".");
+        if (name.startsWith("google.protobuf.")) {
+            return "com." + name;
+        }
+        return StringUtils.substringAfterLast("." + name, ".");
+    }
+
+    @NotNull
+    private static String boxed(@NotNull String type) {
+        return BOXED.getOrDefault(type, type);
+    }
+
+    /**
+     * 和 protoc 一致, 与 Java 关键字相同时加 _
+     */
+    @NotNull
+    private static String getJavaName(@NotNull String name) {
+        return SourceVersion.isKeyword(name) ? name + "_" : name;
+    }
+
+}
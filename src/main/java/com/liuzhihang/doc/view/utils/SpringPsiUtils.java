@@ -5,14 +5,13 @@ import com.intellij.lang.jvm.annotation.JvmAnnotationAttribute;
 import com.intellij.lang.jvm.annotation.JvmAnnotationConstantValue;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
 import com.intellij.psi.*;
-import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
 import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.psi.javadoc.PsiDocTag;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.InheritanceUtil;
-import com.intellij.psi.util.PsiTypesUtil;
 import com.intellij.psi.util.PsiUtil;
 import com.liuzhihang.doc.view.config.Settings;
 import com.liuzhihang.doc.view.constant.FieldTypeConstant;
@@ -23,6 +22,7 @@ import com.liuzhihang.doc.view.dto.Header;
 import com.liuzhihang.doc.view.dto.JsonWireType;
 import com.liuzhihang.doc.view.dto.Param;
 import com.liuzhihang.doc.view.enums.ContentTypeEnum;
+import com.liuzhihang.doc.view.index.DocViewEndpointIndex;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -82,18 +82,24 @@ public class SpringPsiUtils extends ParamPsiUtils {
      * @return 所有符合 DocView 文档类
      */
     public static List<PsiClass> findDocViewFromModule(Module module) {
+        return findDocViewFromScope(module.getProject(), GlobalSearchScope.moduleScope(module));
+    }
 
-        Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex.getInstance().get("Controller", module.getProject(), GlobalSearchScope.moduleScope(module));
-        Collection<PsiAnnotation> restController = JavaAnnotationIndex.getInstance().get("RestController", module.getProject(), GlobalSearchScope.moduleScope(module));
-        psiAnnotations.addAll(restController);
-        List<PsiClass> psiClasses = new LinkedList<>();
+    /**
+     * 从指定范围中获取所有符合生成 DocView 文档的类
+     *
+     * @param project 项目
+     * @param scope   查找范围
+     * @return 所有符合 DocView 文档类
+     */
+    public static List<PsiClass> findDocViewFromScope(Project project, GlobalSearchScope scope) {
 
-        for (PsiAnnotation psiAnnotation : psiAnnotations) {
-            PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-            PsiElement psiElement = psiModifierList.getParent();
+        // 候选类从接口索引中获取, 只有变动的文件才会重新索引
+        List<PsiClass> psiClasses = new LinkedList<>();
 
-            if (psiElement instanceof PsiClass && isSpringClass((PsiClass) psiElement)) {
-                psiClasses.add((PsiClass) psiElement);
+        for (PsiClass psiClass : DocViewEndpointIndex.findClasses(project, scope, DocViewEndpointIndex.SPRING)) {
+            if (isSpringClass(psiClass)) {
+                psiClasses.add(psiClass);
             }
         }
         return psiClasses;
@@ -352,6 +358,7 @@ public class SpringPsiUtils extends ParamPsiUtils {
             body.setRequired(DocViewUtils.isRequired(parameter));
             body.setName(parameter.getName());
             body.setType(parameter.getType().getPresentableText());
+            body.setExampleValue(ParamPsiUtils.simpleExampleValue(parameter, type));
             body.setParent(root);
             // 子集合只有一个
             root.getChildList().add(body);
@@ -387,29 +394,12 @@ public class SpringPsiUtils extends ParamPsiUtils {
     /**
      * 请求对象的 Json 格式
      *
-     * @param parameter 参数
+     * @param reqBody {@link #buildBody(PsiParameter)} 构建的 body
      * @return json 字符串
      */
     @NotNull
-    public static String reqBodyJson(@NotNull PsiParameter parameter) {
-        Map<String, Object> fieldMap = new LinkedHashMap<>();
-        String name = parameter.getName();
-        PsiType type = parameter.getType();
-        Object defaultValue = getDefaultValue(parameter, type);
-
-        if (type instanceof PsiPrimitiveType) {
-            fieldMap.put(name, defaultValue == null ? PsiTypesUtil.getDefaultValue(type) : defaultValue);
-        } else if (FieldTypeConstant.FIELD_TYPE.containsKey(type.getPresentableText())) {
-            fieldMap.put(name, defaultValue == null ? FieldTypeConstant.FIELD_TYPE.get(type.getPresentableText()) : defaultValue);
-        } else {
-            PsiClass psiClass = PsiUtil.resolveClassInType(type);
-            if (psiClass != null) {
-                fieldMap = ParamPsiUtils.getFieldsAndDefaultValue(psiClass, null);
-            }
-        }
-
-        return GsonFormatUtil.gsonFormat(fieldMap);
-
+    public static String reqBodyJson(@NotNull Body reqBody) {
+        return GsonFormatUtil.gsonFormat(ParamPsiUtils.buildExample(reqBody));
     }
 
     public static @Nullable Object getDefaultValue(@NotNull PsiVariable parameter, PsiType type) {
@@ -0,0 +1,81 @@
+package com.liuzhihang.doc.view.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流
+ * <p>
+ * 每个目标服务器一个, 同一个服务器的多次批量上传共用, 桶的容量为一秒的请求数.
+ * <p>
+ * 令牌不足时不阻塞线程, 返回需要延迟的时间, 由调用方延迟发送
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+public class TokenBucket {
+
+    /**
+     * key 为目标服务器
+     */
+    private static final Map<String, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    private final double permitsPerSecond;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    private TokenBucket(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1D, permitsPerSecond);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取目标服务器的令牌桶, 速率变化后重新创建
+     *
+     * @param target           目标服务器
+     * @param permitsPerSecond 每秒的请求数
+     * @return 令牌桶
+     */
+    @NotNull
+    public static TokenBucket forTarget(@NotNull String target, double permitsPerSecond) {
+        return BUCKETS.compute(target, (key, bucket) ->
+                bucket != null && bucket.permitsPerSecond == permitsPerSecond ? bucket : new TokenBucket(permitsPerSecond));
+    }
+
+    /**
+     * 预定一个令牌, 不等待
+     *
+     * @return 需要延迟的纳秒数, 0 表示可以立即使用
+     */
+    public synchronized long reserve() {
+
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        refill();
+        // 令牌可以为负数, 表示已经预定了之后的令牌
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) (-tokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill() {
+
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(capacity, tokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+
+}
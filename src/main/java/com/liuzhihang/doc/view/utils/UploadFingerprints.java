@@ -0,0 +1,116 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.io.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量上传的指纹
+ * <p>
+ * 记录每个文档上一次上传成功时内容的摘要, 内容不变时不再上传.
+ * <p>
+ * 保存在 .idea/doc-view/upload 下, 按上传平台和目标服务器区分
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Slf4j
+public class UploadFingerprints {
+
+    private static final Gson GSON = new Gson();
+
+    private final File file;
+
+    /**
+     * key 为文档在目标服务器上的唯一标识, value 为内容的 SHA-256
+     */
+    private final Map<String, String> fingerprints;
+
+    private volatile boolean changed;
+
+    private UploadFingerprints(File file, Map<String, String> fingerprints) {
+        this.file = file;
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * 读取上一次上传的指纹, 不存在或者损坏时全部上传
+     *
+     * @param project  项目
+     * @param platform 上传平台
+     * @param target   目标服务器
+     * @return 指纹
+     */
+    @NotNull
+    public static UploadFingerprints load(@NotNull Project project, @NotNull String platform, @NotNull String target) {
+
+        String key = DigestUtil.sha256Hex((platform + "|" + target).getBytes(StandardCharsets.UTF_8));
+        Path uploadDir = StorageUtils.getConfigDir(project).resolveSibling("upload");
+        File file = uploadDir.resolve(key + ".json").toFile();
+
+        Map<String, String> previous = null;
+        if (file.isFile()) {
+            try {
+                previous = GSON.fromJson(FileUtil.loadFile(file, StandardCharsets.UTF_8),
+                        new TypeToken<Map<String, String>>() {
+                        }.getType());
+            } catch (IOException | JsonParseException e) {
+                log.warn("Doc View upload fingerprints are broken, upload all documents", e);
+            }
+        }
+        return new UploadFingerprints(file, previous == null ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(previous));
+    }
+
+    /**
+     * @param key     文档的唯一标识
+     * @param content 上传内容
+     * @return true 和上一次上传成功的内容相同
+     */
+    public boolean isUnchanged(@NotNull String key, @NotNull String content) {
+        return digest(content).equals(fingerprints.get(key));
+    }
+
+    /**
+     * 上传成功后记录
+     *
+     * @param key     文档的唯一标识
+     * @param content 上传内容
+     */
+    public void uploaded(@NotNull String key, @NotNull String content) {
+        fingerprints.put(key, digest(content));
+        changed = true;
+    }
+
+    /**
+     * 有上传成功的文档时保存
+     *
+     * @throws IOException 写入失败
+     */
+    public synchronized void save() throws IOException {
+
+        if (!changed) {
+            return;
+        }
+        FileUtil.writeToFile(file, GSON.toJson(new TreeMap<>(fingerprints)));
+        changed = false;
+    }
+
+    @NotNull
+    private static String digest(@NotNull String content) {
+        return DigestUtil.sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.liuzhihang.doc.view.utils;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.UserDataHolderBase;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.liuzhihang.doc.view.DocViewBundle;
+import com.liuzhihang.doc.view.config.ApplicationSettings;
+import com.liuzhihang.doc.view.dto.DocView;
+import com.liuzhihang.doc.view.notification.DocViewNotification;
+import com.liuzhihang.doc.view.service.DocViewUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量上传
+ * <p>
+ * 每个文档先在读操作中准备上传内容, 同时准备的线程数由配置决定, 然后在读操作之外发送异步请求,
+ * 同时进行的请求数量有上限, 等待响应时不占用线程.
+ * <p>
+ * 发送前从目标服务器的 {@link TokenBucket} 中预定令牌, 令牌不足时延迟发送, 避免请求过快被服务器拒绝.
+ * <p>
+ * 同一次上传的文档共用一个 session, 用来缓存服务器上的目录等.
+ * <p>
+ * 内容和上一次上传成功时相同的文档会跳过, 见 {@link UploadFingerprints}
+ *
+ * @author liuzhihang
+ * @date 2026/10/17
+ */
+@Slf4j
+public class UploadPipeline {
+
+    private UploadPipeline() {
+    }
+
+    /**
+     * 上传文档, 需要在后台线程中调用
+     *
+     * @param project     项目
+     * @param service     上传的平台
+     * @param docViewList 文档
+     * @param indicator   进度
+     */
+    public static void upload(@NotNull Project project, @NotNull DocViewUploadService service,
+                              @NotNull List<DocView> docViewList, @NotNull ProgressIndicator indicator) {
+
+        indicator.setIndeterminate(false);
+
+        ApplicationSettings settings = ApplicationSettings.getInstance();
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "Doc View Upload", Math.max(1, settings.getUploadParallelism()));
+        Semaphore inFlight = new Semaphore(Math.max(1, settings.getUploadMaxInFlight()));
+        TokenBucket bucket = TokenBucket.forTarget(service.target(project), settings.getUploadRatePerSecond());
+        UserDataHolderEx session = new UserDataHolderBase();
+        UploadFingerprints fingerprints = UploadFingerprints.load(project, service.getClass().getName(), service.target(project));
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(docViewList.size());
+        AtomicInteger finished = new AtomicInteger();
+        int skipped = 0;
+        try {
+            for (DocView docView : docViewList) {
+                // 同时进行的请求达到上限时等待
+                acquire(inFlight, indicator);
+
+                CompletableFuture<Boolean> future = upload(project, service, docView, session, fingerprints, bucket, executor, indicator);
+                future.whenComplete((unchanged, e) -> {
+                    inFlight.release();
+                    indicator.setFraction((double) finished.incrementAndGet() / docViewList.size());
+                });
+                futures.add(future);
+            }
+
+            for (CompletableFuture<Boolean> future : futures) {
+                if (ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator)) {
+                    skipped++;
+                }
+            }
+        } catch (ProcessCanceledException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            // 取消时也保存已经上传成功的文档
+            try {
+                fingerprints.save();
+            } catch (IOException e) {
+                log.warn("Doc View save upload fingerprints failed", e);
+            }
+        }
+
+        if (skipped > 0) {
+            DocViewNotification.notifyInfo(project, DocViewBundle.message("notify.upload.unchanged", skipped));
+        }
+    }
+
+    /**
+     * @return true 内容没有变化, 跳过上传
+     */
+    @NotNull
+    private static CompletableFuture<Boolean> upload(@NotNull Project project, @NotNull DocViewUploadService service,
+                                                     @NotNull DocView docView, @NotNull UserDataHolderEx session,
+                                                     @NotNull UploadFingerprints fingerprints, @NotNull TokenBucket bucket,
+                                                     @NotNull ExecutorService executor, @NotNull ProgressIndicator indicator) {
+
+        return CompletableFuture
+                .supplyAsync(() -> ReadAction.nonBlocking(() -> service.prepare(project, docView, session))
+                        .inSmartMode(project)
+                        .wrapProgress(indicator)
+                        .executeSynchronously(), executor)
+                .thenCompose(request -> {
+                    String key = request.key();
+                    String content = request.content();
+                    if (key != null && content != null && fingerprints.isUnchanged(key, content)) {
+                        // 和上一次上传成功的内容相同
+                        return CompletableFuture.completedFuture(true);
+                    }
+
+                    // 令牌不足时延迟发送, 不占用线程
+                    long delay = bucket.reserve();
+                    Executor sendExecutor = delay > 0 ? CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS) : Runnable::run;
+
+                    return CompletableFuture
+                            .supplyAsync(() -> {
+                                indicator.checkCanceled();
+                                return request.send();
+                            }, sendExecutor)
+                            .thenCompose(sent -> sent.thenApply(v -> {
+                                if (key != null && content != null) {
+                                    fingerprints.uploaded(key, content);
+                                }
+                                return false;
+                            }));
+                })
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof ProcessCanceledException || cause instanceof CancellationException) {
+                        throw new CompletionException(cause);
+                    }
+                    // 单个文档失败时跳过, 不影响其他文档
+                    service.uploadFailed(project, docView, cause instanceof Exception exception ? exception : new Exception(cause));
+                    return false;
+                });
+    }
+
+    private static void acquire(@NotNull Semaphore semaphore, @NotNull ProgressIndicator indicator) {
+
+        try {
+            while (!semaphore.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                indicator.checkCanceled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        }
+    }
+
+    @NotNull
+    private static Throwable unwrap(@NotNull Throwable e) {
+
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+}
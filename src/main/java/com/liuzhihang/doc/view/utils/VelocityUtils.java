@@ -1,24 +1,50 @@
 package com.liuzhihang.doc.view.utils;
 
+import com.intellij.openapi.diagnostic.Logger;
 import com.liuzhihang.doc.view.dto.DocViewData;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.VelocityException;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
+import org.apache.velocity.runtime.resource.util.StringResourceRepository;
 
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 根据模版生成对应的内容
+ * <p>
+ * 解析后的模版按模版内容的摘要缓存, 批量导出时每个模版只解析一次, 修改模版后调用 {@link #clearCache()}
  *
  * @author liuzhihang
  * @date 2020/11/21 15:38
  */
 public class VelocityUtils {
 
+    private static final Logger LOGGER = Logger.getInstance(VelocityUtils.class);
+
     private static VelocityEngine engine;
     private static String VM_LOG_TAG = "DocView VelocityUtils";
 
+    /**
+     * 模版只在解析时放到仓库中, 解析后移除
+     */
+    private static final String REPOSITORY_NAME = "DocViewTemplates";
+
+    /**
+     * key 为模版内容的摘要
+     */
+    private static final Map<String, Template> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
     static {
         engine = new VelocityEngine();
         engine.setProperty(RuntimeConstants.PARSER_POOL_SIZE, 20);
@@ -29,6 +55,11 @@ public class VelocityUtils {
         props.put("runtime.log.logsystem.class", "org.apache.velocity.runtime.log.SimpleLog4JLogSystem");
         props.put("runtime.log.logsystem.log4j.category", "velocity");
         props.put("runtime.log.logsystem.log4j.logger", "velocity");
+        // 模版从内存中加载, 使用单独的仓库避免和其他插件冲突
+        props.put("resource.loaders", "string");
+        props.put("resource.loader.string.class", StringResourceLoader.class.getName());
+        props.put("resource.loader.string.cache", "false");
+        props.put("resource.loader.string.repository.name", REPOSITORY_NAME);
         engine.init(props);
     }
 
@@ -36,9 +67,7 @@ public class VelocityUtils {
 
 
         StringWriter writer = new StringWriter();
-        VelocityContext velocityContext = new VelocityContext();
-        velocityContext.put("DocView", data);
-        boolean isSuccess = engine.evaluate(velocityContext, writer, VM_LOG_TAG, template);
+        boolean isSuccess = convert(template, data, writer);
         if (!isSuccess) {
             return "ERROR";
         }
@@ -47,4 +76,58 @@ public class VelocityUtils {
         return writer.toString();
     }
 
+    /**
+     * 渲染结果直接写入 writer
+     * <p>
+     * 模版有错误时返回 false, 此时 writer 中可能已经写入了部分内容
+     *
+     * @param template 模版
+     * @param data     数据
+     * @param writer   输出
+     * @return 是否成功
+     */
+    public static boolean convert(String template, DocViewData data, Writer writer) {
+
+        VelocityContext velocityContext = new VelocityContext();
+        velocityContext.put("DocView", data);
+        try {
+            getTemplate(template).merge(velocityContext, writer);
+            return true;
+        } catch (VelocityException e) {
+            LOGGER.warn("Render template failed: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 修改模版后清除缓存
+     */
+    public static void clearCache() {
+        TEMPLATE_CACHE.clear();
+    }
+
+    private static Template getTemplate(String template) {
+
+        return TEMPLATE_CACHE.computeIfAbsent(digest(template), name -> {
+            StringResourceRepository repository = StringResourceLoader.getRepository(REPOSITORY_NAME);
+            repository.putStringResource(name, template, "UTF-8");
+            try {
+                return engine.getTemplate(name, "UTF-8");
+            } finally {
+                repository.removeStringResource(name);
+            }
+        });
+    }
+
+    private static String digest(String template) {
+
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return VM_LOG_TAG + "-" + HexFormat.of().formatHex(messageDigest.digest(template.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // 不会出现
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
@@ -1,88 +1,194 @@
 package com.liuzhihang.doc.view;
 
-import com.liuzhihang.doc.view.utils.ProtoGrpcUtils;
-
-import java.util.List;
+import com.liuzhihang.doc.view.proto.ProtoFile;
+import com.liuzhihang.doc.view.proto.ProtoFileResolver;
+import com.liuzhihang.doc.view.proto.ProtoJsonBuilder;
+import com.liuzhihang.doc.view.proto.ProtoParser;
 
 /**
  * ProtoGrpcUtils self-check tests.
+ * The request body JSON comes from {@link ProtoJsonBuilder}.
  */
 public class ProtoGrpcUtilsTest {
 
     public static void main(String[] args) {
 
+        ProtoFile scalars = ProtoParser.parse("""
+                syntax = "proto3";
+                package demo;
+
+                message IntRequest {
+                  int64 uid = 1;
+                  int64 begin_time_millis = 2;
+                  int64 next_since_id = 3;
+                }
+                message BoolRequest {
+                  bool is_visible = 1;
+                }
+                message StringRequest {
+                  string name = 1;
+                }
+                message MixedRequest {
+                  int64 uid = 1;
+                  string name = 2;
+                  bool is_active = 3;
+                }
+                message EmptyRequest {
+                }
+                message MessageRequest {
+                  SomeMessage request = 1;
+                }
+                message FloatRequest {
+                  float score = 1;
+                }
+                message DoubleRequest {
+                  double price = 1;
+                }
+                message BytesRequest {
+                  bytes data = 1;
+                }
+                """);
+
         // 1. Test JSON generation with int fields
-        List<String[]> intFields = List.of(
-                new String[]{"uid", "int64"},
-                new String[]{"begin_time_millis", "int64"},
-                new String[]{"next_since_id", "int64"}
-        );
-        String json = ProtoGrpcUtils.generateJsonBody(intFields);
+        String json = toJson(scalars, "IntRequest");
         checkContains("Int fields", json, "\"uid\": 0");
         checkContains("Int fields 2", json, "\"begin_time_millis\": 0");
         checkContains("Int fields 3", json, "\"next_since_id\": 0");
 
         // 2. Test JSON generation with bool field
-        List<String[]> boolFields = List.of(
-                new String[]{"is_visible", "bool"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(boolFields);
+        json = toJson(scalars, "BoolRequest");
         checkContains("Bool field", json, "\"is_visible\": false");
 
         // 3. Test JSON generation with string field
-        List<String[]> stringFields = List.of(
-                new String[]{"name", "string"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(stringFields);
+        json = toJson(scalars, "StringRequest");
         checkContains("String field", json, "\"name\": \"\"");
 
         // 4. Test JSON generation with mixed types
-        List<String[]> mixedFields = List.of(
-                new String[]{"uid", "int64"},
-                new String[]{"name", "string"},
-                new String[]{"is_active", "bool"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(mixedFields);
+        json = toJson(scalars, "MixedRequest");
         checkContains("Mixed uid", json, "\"uid\": 0");
         checkContains("Mixed name", json, "\"name\": \"\"");
         checkContains("Mixed active", json, "\"is_active\": false");
 
-        // 5. Test empty fields
-        List<String[]> emptyFields = List.of();
-        json = ProtoGrpcUtils.generateJsonBody(emptyFields);
+        // 5. Test empty message
+        json = toJson(scalars, "EmptyRequest");
         check("Empty fields", "{}", json);
 
-        // 6. Test message field
-        List<String[]> messageFields = List.of(
-                new String[]{"request", "SomeMessage"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(messageFields);
+        // 6. Test message field without definition
+        json = toJson(scalars, "MessageRequest");
         checkContains("Message field", json, "\"request\": {}");
 
         // 7. Test float field
-        List<String[]> floatFields = List.of(
-                new String[]{"score", "float"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(floatFields);
+        json = toJson(scalars, "FloatRequest");
         checkContains("Float field", json, "\"score\": 0");
 
         // 8. Test double field
-        List<String[]> doubleFields = List.of(
-                new String[]{"price", "double"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(doubleFields);
+        json = toJson(scalars, "DoubleRequest");
         checkContains("Double field", json, "\"price\": 0");
 
         // 9. Test bytes field
-        List<String[]> bytesFields = List.of(
-                new String[]{"data", "bytes"}
-        );
-        json = ProtoGrpcUtils.generateJsonBody(bytesFields);
+        json = toJson(scalars, "BytesRequest");
         checkContains("Bytes field", json, "\"data\": \"\"");
 
+        // 10. Test nested message expansion
+        ProtoFile protoFile = ProtoParser.parse("""
+                syntax = "proto3";
+                package demo;
+
+                message Request {
+                  int64 uid = 1;
+                  Page page = 2;
+                  repeated Filter filters = 3;
+                  map<string, Filter> named = 4;
+                  Sort sort = 5;
+                  Node root = 6;
+                  oneof target {
+                    string email = 7;
+                    string phone = 8;
+                  }
+                  google.protobuf.Timestamp since = 9;
+
+                  enum Sort {
+                    ASC = 0;
+                    DESC = 1;
+                  }
+                }
+
+                message Page {
+                  int32 size = 1;
+                }
+
+                message Filter {
+                  string field = 1;
+                  repeated string values = 2;
+                }
+
+                message Node {
+                  string name = 1;
+                  repeated Node children = 2;
+                }
+                """);
+        json = ProtoJsonBuilder.toJson(protoFile, protoFile.findMessage("demo", "Request"), ProtoFileResolver.NONE);
+        checkContains("Nested message", json, "\"page\": {\n    \"size\": 0\n  }");
+        checkContains("Repeated message", json, "\"filters\": [\n    {\n      \"field\": \"\",\n      \"values\": [\n        \"\"\n      ]");
+        checkContains("Map field", json, "\"named\": {\n    \"\": {\n      \"field\": \"\"");
+        checkContains("Enum field", json, "\"sort\": \"ASC\"");
+        checkContains("Recursive message", json, "\"children\": [\n      {}\n    ]");
+        checkContains("Oneof first field", json, "\"email\": \"\"");
+        checkNotContains("Oneof other field", json, "\"phone\"");
+        checkContains("Well known type", json, "\"since\": \"1970-01-01T00:00:00Z\"");
+
+        // 11. Test cycle truncation does not leak into other expansions
+        protoFile = ProtoParser.parse("""
+                message A {
+                  B b = 1;
+                }
+                message B {
+                  A a = 1;
+                  C c = 2;
+                }
+                message C {
+                  B b = 1;
+                }
+                """);
+        json = ProtoJsonBuilder.toJson(protoFile, protoFile.findMessage("", "A"), ProtoFileResolver.NONE);
+        checkContains("Cycle A", json, "\"b\": {\n    \"a\": {},\n    \"c\": {\n      \"b\": {}\n    }\n  }");
+        json = ProtoJsonBuilder.toJson(protoFile, protoFile.findMessage("", "C"), ProtoFileResolver.NONE);
+        checkContains("Cycle C", json, "\"b\": {\n    \"a\": {\n      \"b\": {}\n    },\n    \"c\": {}\n  }");
+
+        // 12. Test imported message types
+        ProtoFile common = ProtoParser.parse("""
+                package demo.common;
+                message Paging {
+                  int32 page = 1;
+                  Order order = 2;
+                }
+                enum Order {
+                  NEWEST = 0;
+                }
+                """);
+        protoFile = ProtoParser.parse("""
+                package demo.user;
+                import "demo/common.proto";
+                message ListRequest {
+                  demo.common.Paging paging = 1;
+                  common.Order order = 2;
+                  Missing missing = 3;
+                }
+                """);
+        ProtoFileResolver resolver = (from, fullName) -> common.getMessageMap().containsKey(fullName)
+                || common.getEnumMap().containsKey(fullName) ? common : null;
+        json = ProtoJsonBuilder.toJson(protoFile, protoFile.findMessage("demo.user", "ListRequest"), resolver);
+        checkContains("Imported message", json, "\"paging\": {\n    \"page\": 0,\n    \"order\": \"NEWEST\"\n  }");
+        checkContains("Imported enum by relative name", json, "\"order\": \"NEWEST\",\n  \"missing\"");
+        checkContains("Unresolved message", json, "\"missing\": {}");
+
         System.out.println("All ProtoGrpcUtils tests passed ✓");
     }
 
+    private static String toJson(ProtoFile protoFile, String messageName) {
+        return ProtoJsonBuilder.toJson(protoFile, protoFile.findMessage(protoFile.getPackageName(), messageName), ProtoFileResolver.NONE);
+    }
+
     private static void check(String name, String expected, String actual) {
         if (expected == null ? actual != null : !expected.equals(actual)) {
             throw new AssertionError(name + " failed: expected[" + expected + "] actual[" + actual + "]");
@@ -96,4 +202,11 @@ public class ProtoGrpcUtilsTest {
         }
         System.out.println("[PASS] " + name + " -> contains " + fragment);
     }
+
+    private static void checkNotContains(String name, String actual, String fragment) {
+        if (actual == null || actual.contains(fragment)) {
+            throw new AssertionError(name + " failed: should not contain [" + fragment + "] actual[" + actual + "]");
+        }
+        System.out.println("[PASS] " + name + " -> not contains " + fragment);
+    }
 }
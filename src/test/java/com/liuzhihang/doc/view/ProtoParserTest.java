@@ -0,0 +1,179 @@
+package com.liuzhihang.doc.view;
+
+import com.liuzhihang.doc.view.proto.*;
+
+import java.util.List;
+
+/**
+ * ProtoParser self-check tests.
+ */
+public class ProtoParserTest {
+
+    private static final String PROTO = """
+            syntax = "proto3";
+
+            package demo.user;
+
+            import "google/protobuf/empty.proto";
+            import public "demo/common.proto";
+
+            option java_package = "com.demo.user";
+            option java_multiple_files = true;
+
+            /**
+             * 用户
+             */
+            message User {
+              // 用户 id
+              int64 uid = 1;
+              string name = 2 [json_name = "userName", (validate.rules).string = {min_len: 1, max_len: 32}];
+              repeated string tags = 3; // 标签
+              map<string, Address> addresses = 4;
+              Status status = 5;
+
+              message Address {
+                string city = 1;
+                option deprecated = true;
+              }
+
+              enum Status {
+                option allow_alias = true;
+                UNKNOWN = 0;
+                ACTIVE = 1; // 正常
+                DISABLED = -1;
+              }
+
+              oneof contact {
+                string email = 6;
+                string phone = 7;
+              }
+
+              reserved 8, 9 to 11;
+              reserved "old";
+            }
+
+            message GetUserRequest {
+              optional int64 uid = 1;
+              User.Address address = 2;
+              .demo.user.User user = 3;
+            }
+
+            service UserService {
+              option (google.api.default_host) = "user.demo.com";
+
+              // 查询用户
+              rpc GetUser(GetUserRequest) returns (User);
+              rpc Watch(stream GetUserRequest) returns (stream User) {
+                option (google.api.http) = { get: "/v1/users/{uid}" };
+              }
+              rpc Ping(google.protobuf.Empty)
+                  returns (google.protobuf.Empty);
+            }
+            """;
+
+    public static void main(String[] args) {
+
+        ProtoFile protoFile = ProtoParser.parse(PROTO);
+
+        // 1. File level
+        check("Syntax", "proto3", protoFile.getSyntax());
+        check("Package", "demo.user", protoFile.getPackageName());
+        check("Imports", "[google/protobuf/empty.proto, demo/common.proto]", protoFile.getImports().toString());
+        check("Java package option", "com.demo.user", protoFile.getOptions().get("java_package"));
+        check("Top level messages", 2, protoFile.getMessages().size());
+
+        // 2. Message fields, oneof fields are flattened
+        ProtoMessage user = protoFile.findMessage("demo.user", "User");
+        checkNotNull("User message", user);
+        check("User full name", "demo.user.User", user.getFullName());
+        check("User comment", "用户", user.getComment());
+        check("User fields", 7, user.getFields().size());
+
+        ProtoField uid = user.getFields().get(0);
+        check("Uid type", "int64", uid.getType());
+        check("Uid number", 1, uid.getNumber());
+        check("Uid comment", "用户 id", uid.getComment());
+
+        ProtoField name = user.getFields().get(1);
+        check("Name json_name", "userName", name.getOptions().get("json_name"));
+        check("Name aggregate option", "{min_len: 1, max_len: 32}", name.getOptions().get("(validate.rules).string"));
+
+        ProtoField tags = user.getFields().get(2);
+        check("Tags repeated", true, tags.isRepeated());
+        check("Tags trailing comment", "标签", tags.getComment());
+
+        ProtoField addresses = user.getFields().get(3);
+        check("Map field", true, addresses.isMap());
+        check("Map type", "map<string, Address>", addresses.getType());
+        check("Map value type", "Address", addresses.getValueType());
+
+        check("Oneof email", "contact", user.getFields().get(5).getOneof());
+        check("Oneof phone", "phone", user.getFields().get(6).getName());
+
+        // 3. Nested message and enum, scope lookup
+        ProtoMessage address = protoFile.findMessage(user.getFullName(), "Address");
+        checkNotNull("Nested message", address);
+        check("Nested full name", "demo.user.User.Address", address.getFullName());
+        check("Nested option", "true", address.getOptions().get("deprecated"));
+        check("Qualified nested", address, protoFile.findMessage("demo.user.GetUserRequest", "User.Address"));
+        check("Absolute type", user, protoFile.findMessage("demo.user.GetUserRequest", ".demo.user.User"));
+        check("Out of scope", null, protoFile.findMessage("demo.user", "Address"));
+
+        ProtoEnum status = protoFile.findEnum(user.getFullName(), "Status");
+        checkNotNull("Nested enum", status);
+        check("Enum values", 3, status.getValues().size());
+        check("Enum comment", "正常", status.getValues().get(1).getComment());
+        check("Enum negative", -1, status.getValues().get(2).getNumber());
+
+        ProtoMessage request = protoFile.findMessage("demo.user", "GetUserRequest");
+        checkNotNull("Request message", request);
+        check("Optional label", "optional", request.getFields().get(0).getLabel());
+
+        // 4. Service and rpc
+        check("Services", 1, protoFile.getServices().size());
+        List<ProtoRpc> rpcs = protoFile.getServices().get(0).getRpcs();
+        check("Rpcs", 3, rpcs.size());
+        check("Rpc service", "UserService", rpcs.get(0).getServiceName());
+        check("Rpc request", "GetUserRequest", rpcs.get(0).getRequestType());
+        check("Rpc comment", "查询用户", rpcs.get(0).getComment());
+        check("Client streaming", true, rpcs.get(1).isClientStreaming());
+        check("Server streaming", true, rpcs.get(1).isServerStreaming());
+        check("Qualified request", "google.protobuf.Empty", rpcs.get(2).getRequestType());
+
+        int getUser = PROTO.indexOf("rpc GetUser");
+        check("Find rpc", rpcs.get(0), protoFile.findRpc(getUser, getUser + 10));
+        int ping = PROTO.indexOf("returns (google.protobuf.Empty)");
+        check("Find multi line rpc", rpcs.get(2), protoFile.findRpc(ping, ping + 10));
+        check("Find rpc outside", null, protoFile.findRpc(0, 10));
+
+        // 5. Incomplete file while editing
+        ProtoFile incomplete = ProtoParser.parse("""
+                message Foo {
+                  int64 id = 1
+                  string = 2;
+                  Bar bar = 3;
+                service Foo {
+                  rpc Get(Foo) returns (Foo
+                """);
+        ProtoMessage foo = incomplete.findMessage("", "Foo");
+        checkNotNull("Incomplete message", foo);
+        check("Incomplete first field", "id", foo.getFields().get(0).getName());
+        check("Incomplete skipped field", "bar", foo.getFields().get(1).getName());
+
+        System.out.println("All ProtoParser tests passed ✓");
+    }
+
+    private static void check(String name, Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(name + " failed: expected[" + expected + "] actual[" + actual + "]");
+        }
+        System.out.println("[PASS] " + name);
+    }
+
+    private static void checkNotNull(String name, Object actual) {
+        if (actual == null) {
+            throw new AssertionError(name + " failed: actual is null");
+        }
+        System.out.println("[PASS] " + name);
+    }
+}